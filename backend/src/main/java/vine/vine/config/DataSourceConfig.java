@@ -0,0 +1,172 @@
+package vine.vine.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Separate Hikari pools per workload against the same database, so no workload can exhaust connections for
+ * the others:
+ * <ul>
+ *   <li>web: REST calls and anything not running in a job (spring.datasource.hikari.*)</li>
+ *   <li>extraction: Quartz jobs and lease workers (vine.datasource.extraction.*)</li>
+ *   <li>quartz: the Quartz job store only, wired directly into QuartzConfig (vine.datasource.quartz.*)</li>
+ *   <li>replica: optional read replica or reporting database for read-only extraction reads (vine.datasource.replica.*)</li>
+ * </ul>
+ * The application DataSource routes between web, extraction and replica; Flyway uses the web pool. The
+ * extraction read isolation is set per database (primary and replica) and checked against it on startup.
+ * Statements and result rows through the application DataSource are counted per job run by {@link RunQueryCounter}.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Value("${vine.datasource.extraction.maximum-pool-size:8}")
+    private int extractionMaximumPoolSize;
+
+    @Value("${vine.datasource.extraction.minimum-idle:0}")
+    private int extractionMinimumIdle;
+
+    @Value("${vine.datasource.quartz.maximum-pool-size:12}")
+    private int quartzMaximumPoolSize;
+
+    @Value("${vine.datasource.quartz.minimum-idle:1}")
+    private int quartzMinimumIdle;
+
+    // Isolation of read-only extraction chunks on the primary database: locking, snapshot or rcsi
+    @Value("${vine.extraction.isolation:locking}")
+    private String extractionIsolation;
+
+    @Value("${vine.datasource.replica.extraction-isolation:locking}")
+    private String replicaExtractionIsolation;
+
+    @Value("${vine.datasource.replica.url:}")
+    private String replicaUrl;
+
+    @Value("${vine.datasource.replica.username:}")
+    private String replicaUsername;
+
+    @Value("${vine.datasource.replica.password:}")
+    private String replicaPassword;
+
+    @Value("${vine.datasource.replica.driver-class-name:com.microsoft.sqlserver.jdbc.SQLServerDriver}")
+    private String replicaDriverClassName;
+
+    @Value("${vine.datasource.replica.maximum-pool-size:10}")
+    private int replicaMaximumPoolSize;
+
+    // Run on both databases; the difference of the two timestamps is the replica lag
+    @Value("${vine.datasource.replica.freshness-query:SELECT MAX(addtime) FROM jmmain}")
+    private String replicaFreshnessQuery;
+
+    @Value("${vine.datasource.replica.max-lag-seconds:60}")
+    private long replicaMaxLagSeconds;
+
+    @Value("${vine.datasource.replica.lag-check-interval-seconds:30}")
+    private long replicaLagCheckIntervalSeconds;
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource webDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("vine-web");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource extractionDataSource(@Qualifier("webDataSource") HikariDataSource webDataSource) {
+        return derivePool(webDataSource, "vine-extraction", extractionMaximumPoolSize, extractionMinimumIdle);
+    }
+
+    @Bean
+    public HikariDataSource quartzDataSource(@Qualifier("webDataSource") HikariDataSource webDataSource) {
+        return derivePool(webDataSource, "vine-quartz", quartzMaximumPoolSize, quartzMinimumIdle);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "vine.datasource.replica.enabled", havingValue = "true")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("vine-replica");
+        dataSource.setJdbcUrl(replicaUrl);
+        dataSource.setUsername(replicaUsername);
+        dataSource.setPassword(replicaPassword);
+        dataSource.setDriverClassName(replicaDriverClassName);
+        dataSource.setMaximumPoolSize(replicaMaximumPoolSize);
+        dataSource.setReadOnly(true);
+        // Lag check and routing must not fail startup while the replica is unreachable
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "vine.datasource.replica.enabled", havingValue = "true")
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("webDataSource") HikariDataSource webDataSource,
+                                               @Qualifier("replicaDataSource") HikariDataSource replicaDataSource) {
+        return new ReplicaLagMonitor(webDataSource, replicaDataSource, replicaFreshnessQuery,
+                replicaMaxLagSeconds, replicaLagCheckIntervalSeconds);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("webDataSource") HikariDataSource webDataSource,
+                                 @Qualifier("extractionDataSource") HikariDataSource extractionDataSource,
+                                 @Qualifier("replicaDataSource") ObjectProvider<HikariDataSource> replicaDataSource,
+                                 ObjectProvider<ReplicaLagMonitor> replicaLagMonitor) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(WorkloadRoutingDataSource.Route.WEB, webDataSource);
+        targets.put(WorkloadRoutingDataSource.Route.EXTRACTION, extractionDataSource);
+
+        HikariDataSource replica = replicaDataSource.getIfAvailable();
+        ReplicaLagMonitor lagMonitor = null;
+        if (replica != null) {
+            targets.put(WorkloadRoutingDataSource.Route.REPLICA, replica);
+            lagMonitor = replicaLagMonitor.getIfAvailable();
+        }
+
+        WorkloadRoutingDataSource routing = new WorkloadRoutingDataSource(lagMonitor);
+        ExtractionIsolation primaryIsolation = ExtractionIsolation.parse(extractionIsolation).verify(webDataSource, "primary");
+        routing.setReadIsolation(WorkloadRoutingDataSource.Route.WEB, primaryIsolation);
+        routing.setReadIsolation(WorkloadRoutingDataSource.Route.EXTRACTION, primaryIsolation);
+        if (replica != null) {
+            routing.setReadIsolation(WorkloadRoutingDataSource.Route.REPLICA,
+                    ExtractionIsolation.parse(replicaExtractionIsolation).verify(replica, "replica"));
+        }
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(webDataSource);
+        routing.afterPropertiesSet();
+        RunQueryCounter queryCounter = new RunQueryCounter();
+        return ProxyDataSourceBuilder.create("vine", new LazyConnectionDataSourceProxy(routing))
+                .listener(queryCounter)
+                .methodListener(queryCounter)
+                .proxyResultSet()
+                .build();
+    }
+
+    /**
+     * Same database and connection settings as the web pool, own name and size
+     */
+    private static HikariDataSource derivePool(HikariDataSource template, String poolName, int maximumPoolSize, int minimumIdle) {
+        HikariConfig config = new HikariConfig();
+        template.copyStateTo(config);
+        config.setPoolName(poolName);
+        config.setMaximumPoolSize(maximumPoolSize);
+        config.setMinimumIdle(Math.min(minimumIdle, maximumPoolSize));
+        return new HikariDataSource(config);
+    }
+}
@@ -0,0 +1,91 @@
+package vine.vine.config;
+
+import com.microsoft.sqlserver.jdbc.SQLServerConnection;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Isolation of the read-only extraction chunks on one database:
+ * <ul>
+ *   <li>LOCKING: the connection default (read committed with shared locks)</li>
+ *   <li>SNAPSHOT: each chunk reads one point-in-time view of jmmain, nmmain, archrg etc. from the row version
+ *       store, without shared locks; needs ALLOW_SNAPSHOT_ISOLATION ON</li>
+ *   <li>RCSI: read committed, served from row versions because the database has READ_COMMITTED_SNAPSHOT ON;
+ *       every statement sees its own point in time</li>
+ * </ul>
+ */
+@Slf4j
+public enum ExtractionIsolation {
+
+    LOCKING(null),
+    SNAPSHOT(SQLServerConnection.TRANSACTION_SNAPSHOT),
+    RCSI(Connection.TRANSACTION_READ_COMMITTED);
+
+    private static final String DATABASE_OPTIONS_SQL =
+            "SELECT snapshot_isolation_state, is_read_committed_snapshot_on FROM sys.databases WHERE name = DB_NAME()";
+
+    // JDBC level set on the chunk's connection; null leaves the connection as it is
+    private final Integer connectionIsolation;
+
+    ExtractionIsolation(Integer connectionIsolation) {
+        this.connectionIsolation = connectionIsolation;
+    }
+
+    public Integer getConnectionIsolation() {
+        return connectionIsolation;
+    }
+
+    public static ExtractionIsolation parse(String value) {
+        if (value == null || value.isBlank()) {
+            return LOCKING;
+        }
+        return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Checks the database options behind this mode and returns the mode to actually use. SNAPSHOT on a database
+     * that does not allow it would fail every chunk (error 3952), so it falls back to LOCKING; RCSI without
+     * READ_COMMITTED_SNAPSHOT still works, just with shared locks, and only warns.
+     */
+    public ExtractionIsolation verify(DataSource dataSource, String databaseName) {
+        if (this == LOCKING) {
+            return this;
+        }
+        try {
+            Map<String, Object> options = new JdbcTemplate(dataSource).queryForMap(DATABASE_OPTIONS_SQL);
+            boolean snapshotAllowed = toInt(options.get("snapshot_isolation_state")) == 1;
+            boolean readCommittedSnapshot = toInt(options.get("is_read_committed_snapshot_on")) == 1;
+
+            if (this == SNAPSHOT && !snapshotAllowed) {
+                log.warn("⚠️ {} database does not allow snapshot isolation (ALTER DATABASE ... SET ALLOW_SNAPSHOT_ISOLATION ON), " +
+                        "extraction reads fall back to locking read committed", databaseName);
+                return LOCKING;
+            }
+            if (this == RCSI && !readCommittedSnapshot) {
+                log.warn("⚠️ READ_COMMITTED_SNAPSHOT is off on the {} database, extraction reads still take shared locks", databaseName);
+                return this;
+            }
+            log.info("📸 Extraction reads on the {} database use {} isolation", databaseName, this);
+            return this;
+        } catch (Exception e) {
+            log.warn("⚠️ Could not check the isolation options of the {} database, extraction reads use locking read committed: {}",
+                    databaseName, e.getMessage());
+            return LOCKING;
+        }
+    }
+
+    private static int toInt(Object value) {
+        if (value instanceof Number number) {
+            return number.intValue();
+        }
+        if (value instanceof Boolean flag) {
+            return flag ? 1 : 0;
+        }
+        return 0;
+    }
+}
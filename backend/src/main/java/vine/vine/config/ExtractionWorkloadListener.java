@@ -0,0 +1,32 @@
+package vine.vine.config;
+
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.listeners.JobListenerSupport;
+
+/**
+ * Marks Quartz worker threads for the extraction pool while a job runs, so batch work never takes connections
+ * from the pool serving the UI.
+ */
+public class ExtractionWorkloadListener extends JobListenerSupport {
+
+    @Override
+    public String getName() {
+        return "extractionWorkloadListener";
+    }
+
+    @Override
+    public void jobToBeExecuted(JobExecutionContext context) {
+        WorkloadRoutingDataSource.markExtraction();
+    }
+
+    @Override
+    public void jobExecutionVetoed(JobExecutionContext context) {
+        WorkloadRoutingDataSource.clearExtraction();
+    }
+
+    @Override
+    public void jobWasExecuted(JobExecutionContext context, JobExecutionException jobException) {
+        WorkloadRoutingDataSource.clearExtraction();
+    }
+}
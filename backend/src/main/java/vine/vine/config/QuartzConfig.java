@@ -1,30 +1,98 @@
 package vine.vine.config;
 
+import jakarta.annotation.PostConstruct;
 import org.quartz.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.quartz.SchedulerFactoryBean;
 
+import org.quartz.utils.ConnectionProvider;
+import org.quartz.utils.DBConnectionManager;
 import vine.vine.scheduler.BookingProcessorJob;
 
 import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.Properties;
 
 @Configuration
 public class QuartzConfig {
 
+    // Dedicated pool; the job store commits its own work on it, independent of application transactions
     @Autowired
-    private DataSource dataSource;
+    @Qualifier("quartzDataSource")
+    private DataSource quartzDataSource;
+
+    private static final String QUARTZ_DATA_SOURCE = "vineQuartz";
 
     @Autowired
     private AutoWiringSpringBeanJobFactory springBeanJobFactory;
 
+    // Several nodes share the JDBC job store; Quartz hands each trigger firing to exactly one of them
+    @Value("${vine.scheduler.clustered:false}")
+    private boolean clustered;
+
+    @Value("${vine.scheduler.cluster-checkin-interval-ms:15000}")
+    private long clusterCheckinIntervalMs;
+
+    @Value("${vine.quartz.thread-count:10}")
+    private int threadCount;
+
+    // Local partitions run as Quartz jobs next to the coordinator, which holds its own thread while it waits
+    @Value("${vine.scheduler.partitions:1}")
+    private int partitions;
+
+    @Value("${vine.scheduler.partition-mode:local}")
+    private String partitionMode;
+
+    @Value("${vine.probe.enabled:false}")
+    private boolean probeEnabled;
+
+    @Value("${vine.fastlane.enabled:false}")
+    private boolean fastLaneEnabled;
+
+    @Value("${vine.history.retention-enabled:true}")
+    private boolean retentionEnabled;
+
+    // SQL Server in production; tests run the job store on H2 with StdJDBCDelegate
+    @Value("${vine.quartz.driver-delegate:org.quartz.impl.jdbcjobstore.MSSQLDelegate}")
+    private String driverDelegateClass;
+
+    // Blank falls back to Quartz's SELECT ... FOR UPDATE
+    @Value("${vine.quartz.select-with-lock-sql:SELECT * FROM {0}LOCKS WITH (UPDLOCK,ROWLOCK) WHERE SCHED_NAME = {1} AND LOCK_NAME = ?}")
+    private String selectWithLockSql;
+
+    /**
+     * Refuses partition settings the local mode cannot run: its runs live in the coordinator's JVM, so a clustered
+     * peer firing one of the partition triggers would never report back, and partitions queued behind a full thread
+     * pool would leave the coordinator waiting for the whole partition timeout.
+     */
+    @PostConstruct
+    void validatePartitioning() {
+        if (partitions <= 1 || !"local".equalsIgnoreCase(partitionMode)) {
+            return;
+        }
+        if (clustered) {
+            throw new IllegalStateException("vine.scheduler.partition-mode=local cannot run " + partitions
+                    + " partitions on a clustered scheduler; use partition-mode=lease or vine.scheduler.partitions=1");
+        }
+        int reserved = 1 + (probeEnabled ? 1 : 0) + (fastLaneEnabled ? 1 : 0) + (retentionEnabled ? 1 : 0);
+        if (partitions + reserved > threadCount) {
+            throw new IllegalStateException("vine.scheduler.partitions=" + partitions + " needs " + (partitions + reserved)
+                    + " Quartz threads (coordinator, probe, fast lane and retention jobs included) but vine.quartz.thread-count is "
+                    + threadCount);
+        }
+    }
+
     @Bean
     public SchedulerFactoryBean schedulerFactoryBean() {
         SchedulerFactoryBean factory = new SchedulerFactoryBean();
         factory.setJobFactory(springBeanJobFactory);
-        factory.setDataSource(dataSource);
+        registerQuartzConnectionProvider();
+        factory.setGlobalJobListeners(new ExtractionWorkloadListener());
         factory.setQuartzProperties(quartzProperties());
         factory.setStartupDelay(10); // Start after 10 seconds
         factory.setOverwriteExistingJobs(true);
@@ -50,31 +118,54 @@ public class QuartzConfig {
         
         // ThreadPool properties
         properties.setProperty("org.quartz.threadPool.class", "org.quartz.simpl.SimpleThreadPool");
-        properties.setProperty("org.quartz.threadPool.threadCount", "10");
+        properties.setProperty("org.quartz.threadPool.threadCount", String.valueOf(threadCount));
         properties.setProperty("org.quartz.threadPool.threadPriority", "5");
         
         // JobStore properties - Use binary storage (default for SQL Server)
-        properties.setProperty("org.quartz.jobStore.class", "org.springframework.scheduling.quartz.LocalDataSourceJobStore");
-        properties.setProperty("org.quartz.jobStore.driverDelegateClass", "org.quartz.impl.jdbcjobstore.MSSQLDelegate");
+        // JobStoreTX rather than Spring's LocalDataSourceJobStore: scheduler calls made outside a transaction on
+        // the job store's pool (startup scheduling, partition fan-out from job threads) are committed, not lost
+        properties.setProperty("org.quartz.jobStore.class", "org.quartz.impl.jdbcjobstore.JobStoreTX");
+        properties.setProperty("org.quartz.jobStore.dataSource", QUARTZ_DATA_SOURCE);
+        properties.setProperty("org.quartz.jobStore.driverDelegateClass", driverDelegateClass);
         properties.setProperty("org.quartz.jobStore.tablePrefix", "QRTZ_");
-        properties.setProperty("org.quartz.jobStore.isClustered", "false");
+        properties.setProperty("org.quartz.jobStore.isClustered", String.valueOf(clustered));
+        properties.setProperty("org.quartz.jobStore.clusterCheckinInterval", String.valueOf(clusterCheckinIntervalMs));
         properties.setProperty("org.quartz.jobStore.useProperties", "false"); // Use binary storage
         
         // SQL Server specific properties to fix autocommit issues
         properties.setProperty("org.quartz.jobStore.dontSetAutoCommitFalse", "false");
-        properties.setProperty("org.quartz.jobStore.dontSetNonManagedTXConnectionAutoCommitFalse", "false");
-        properties.setProperty("org.quartz.jobStore.selectWithLockSQL", "SELECT * FROM {0}LOCKS WITH (UPDLOCK,ROWLOCK) WHERE SCHED_NAME = {1} AND LOCK_NAME = ?");
+        if (!selectWithLockSql.isBlank()) {
+            properties.setProperty("org.quartz.jobStore.selectWithLockSQL", selectWithLockSql);
+        }
         
         return properties;
     }
 
+    private void registerQuartzConnectionProvider() {
+        DBConnectionManager.getInstance().addConnectionProvider(QUARTZ_DATA_SOURCE, new ConnectionProvider() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return quartzDataSource.getConnection();
+            }
+
+            @Override
+            public void shutdown() {
+                // The pool is a Spring bean and closed with the context
+            }
+
+            @Override
+            public void initialize() {
+            }
+        });
+    }
+
     @Bean
     public JobDetail bookingProcessorJobDetail() {
         return JobBuilder.newJob(BookingProcessorJob.class)
                 .withIdentity("bookingProcessorJob", "vine-group")
                 .withDescription("Job to process bookings - MANUAL START ONLY")
                 .storeDurably(true) // ✅ CRITICAL: Job exists without trigger
-                .requestRecovery(false) // ✅ CRITICAL: Don't auto-recover on startup
+                .requestRecovery(clustered) // ✅ Single node: don't auto-recover on startup; cluster: a peer re-runs a crashed node's job
                 .build();
     }
     
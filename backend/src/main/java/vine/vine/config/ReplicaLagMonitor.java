@@ -0,0 +1,94 @@
+package vine.vine.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides whether the replica may serve reads. The same freshness query (by default the newest jmmain.addtime)
+ * runs on primary and replica; the difference is the replica lag. The check runs at most once per interval on
+ * whichever thread asks first, and an unreachable replica counts as lagging, so reads fall back to the primary.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final String freshnessQuery;
+    private final long maxLagSeconds;
+    private final long checkIntervalNanos;
+
+    private final AtomicLong lastCheckNanos;
+    private volatile boolean replicaUsable = false;
+    private volatile long lastLagSeconds = -1;
+    private volatile LocalDateTime lastCheckedAt;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, String freshnessQuery,
+                             long maxLagSeconds, long checkIntervalSeconds) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.freshnessQuery = freshnessQuery;
+        this.maxLagSeconds = maxLagSeconds;
+        this.checkIntervalNanos = TimeUnit.SECONDS.toNanos(checkIntervalSeconds);
+        // First caller checks immediately
+        this.lastCheckNanos = new AtomicLong(System.nanoTime() - checkIntervalNanos);
+    }
+
+    public boolean isReplicaUsable() {
+        long now = System.nanoTime();
+        long last = lastCheckNanos.get();
+        if (now - last >= checkIntervalNanos && lastCheckNanos.compareAndSet(last, now)) {
+            check();
+        }
+        return replicaUsable;
+    }
+
+    private void check() {
+        try {
+            Timestamp primaryLatest = primary.queryForObject(freshnessQuery, Timestamp.class);
+            Timestamp replicaLatest = replica.queryForObject(freshnessQuery, Timestamp.class);
+
+            long lag;
+            if (primaryLatest == null) {
+                lag = 0;
+            } else if (replicaLatest == null) {
+                lag = Long.MAX_VALUE;
+            } else {
+                lag = Math.max(0, Duration.between(replicaLatest.toLocalDateTime(), primaryLatest.toLocalDateTime()).getSeconds());
+            }
+
+            boolean usable = lag <= maxLagSeconds;
+            if (usable != replicaUsable) {
+                log.info(usable ? "📖 Replica caught up (lag {} s), routing extraction reads to it"
+                                : "⚠️ Replica lags by {} s, routing extraction reads to the primary", lag);
+            }
+            lastLagSeconds = lag;
+            replicaUsable = usable;
+        } catch (Exception e) {
+            if (replicaUsable) {
+                log.warn("⚠️ Replica lag check failed, routing extraction reads to the primary: {}", e.getMessage());
+            }
+            lastLagSeconds = -1;
+            replicaUsable = false;
+        } finally {
+            lastCheckedAt = LocalDateTime.now();
+        }
+    }
+
+    /**
+     * Lag measured by the last check in seconds; -1 if the check failed
+     */
+    public long getLastLagSeconds() {
+        return lastLagSeconds;
+    }
+
+    public LocalDateTime getLastCheckedAt() {
+        return lastCheckedAt;
+    }
+}
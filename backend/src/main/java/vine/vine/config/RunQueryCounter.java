@@ -0,0 +1,49 @@
+package vine.vine.config;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import vine.vine.service.RunMetrics;
+
+/**
+ * Counts the JDBC statements executed and result rows read through the application DataSource against the stage
+ * of the job run active on the calling thread. Sees Hibernate, JdbcTemplate and id-set queries alike; work outside
+ * a timed stage is not counted. Registered on the datasource-proxy wrapper in DataSourceConfig.
+ */
+public class RunQueryCounter implements QueryExecutionListener, MethodExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RunMetrics metrics = RunMetrics.current();
+        if (metrics.getActiveStage() != null) {
+            // One round trip, also for batches
+            metrics.addQueries(metrics.getActiveStage(), 1);
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && "next".equals(executionContext.getMethod().getName())
+                && Boolean.TRUE.equals(executionContext.getResult())) {
+            RunMetrics metrics = RunMetrics.current();
+            if (metrics.getActiveStage() != null) {
+                metrics.addJdbcRows(metrics.getActiveStage(), 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package vine.vine.config;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.hibernate.stat.spi.StatisticsImplementor;
+
+import vine.vine.service.RunMetrics;
+
+/**
+ * Hibernate statistics that, besides the session factory totals, count entity loads and fetches against the stage
+ * of the job run active on the calling thread. Registered through hibernate.stats.factory; Hibernate only reports
+ * to it while hibernate.generate_statistics is on.
+ */
+public class RunStatisticsFactory implements StatisticsFactory {
+
+    @Override
+    public StatisticsImplementor buildStatistics(SessionFactoryImplementor sessionFactory) {
+        return new RunStatistics(sessionFactory);
+    }
+
+    private static class RunStatistics extends StatisticsImpl {
+
+        private RunStatistics(SessionFactoryImplementor sessionFactory) {
+            super(sessionFactory);
+        }
+
+        @Override
+        public void loadEntity(String entityName) {
+            super.loadEntity(entityName);
+            countEntity();
+        }
+
+        @Override
+        public void fetchEntity(String entityName) {
+            super.fetchEntity(entityName);
+            countEntity();
+        }
+
+        private static void countEntity() {
+            RunMetrics metrics = RunMetrics.current();
+            if (metrics.getActiveStage() != null) {
+                metrics.addEntities(metrics.getActiveStage(), 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package vine.vine.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Picks the connection pool per statement-issuing thread: read-only transactions explicitly marked as extraction
+ * reads ({@link #markExtractionRead()}: the roster, probe and release queries and the chunk lookups) go to the
+ * replica while {@link ReplicaLagMonitor} considers it fresh enough, other work of job threads (marked with
+ * {@link #markExtraction()}) to the extraction pool, and everything else, REST calls included, to the web pool.
+ * Other read-only transactions (watermarks, scheduler and system configuration, lease polling) stay on the
+ * primary, since they read the application's own tables and must see its latest writes. Must sit behind a
+ * LazyConnectionDataSourceProxy: the read-only flag is only bound after the transaction manager asked for a
+ * connection.
+ * <p>
+ * Connections taken inside {@link #markExtractionRead()} additionally get the {@link ExtractionIsolation} of
+ * the database behind their route. Hikari restores the pool's default isolation when they are returned.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { WEB, EXTRACTION, REPLICA }
+
+    private static final ThreadLocal<Boolean> EXTRACTION_THREAD = new ThreadLocal<>();
+
+    private static final ThreadLocal<Boolean> EXTRACTION_READ = new ThreadLocal<>();
+
+    private final Map<Route, ExtractionIsolation> readIsolation = new EnumMap<>(Route.class);
+
+    // null when no replica is configured
+    private final ReplicaLagMonitor lagMonitor;
+
+    public WorkloadRoutingDataSource(ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+    }
+
+    /**
+     * Routes the current thread's connections to the extraction pool until {@link #clearExtraction()}
+     */
+    public static void markExtraction() {
+        EXTRACTION_THREAD.set(Boolean.TRUE);
+    }
+
+    public static void clearExtraction() {
+        EXTRACTION_THREAD.remove();
+    }
+
+    /**
+     * Lets read-only transactions use the replica, and applies the extraction read isolation, for connections
+     * taken until {@link #clearExtractionRead()}; set around each read-only extraction query or chunk, before its
+     * first statement
+     */
+    public static void markExtractionRead() {
+        EXTRACTION_READ.set(Boolean.TRUE);
+    }
+
+    public static void clearExtractionRead() {
+        EXTRACTION_READ.remove();
+    }
+
+    public void setReadIsolation(Route route, ExtractionIsolation isolation) {
+        readIsolation.put(route, isolation);
+    }
+
+    public ExtractionIsolation getReadIsolation(Route route) {
+        return readIsolation.getOrDefault(route, ExtractionIsolation.LOCKING);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        // Resolve once, so the isolation matches the pool the connection came from
+        Route route = (Route) determineCurrentLookupKey();
+        Connection connection = resolve(route).getConnection();
+        Integer isolation = EXTRACTION_READ.get() != null ? getReadIsolation(route).getConnectionIsolation() : null;
+        if (isolation != null) {
+            try {
+                connection.setTransactionIsolation(isolation);
+            } catch (SQLException | RuntimeException e) {
+                connection.close();
+                throw e;
+            }
+        }
+        return connection;
+    }
+
+    private DataSource resolve(Route route) {
+        DataSource dataSource = getResolvedDataSources().get(route);
+        return dataSource != null ? dataSource : getResolvedDefaultDataSource();
+    }
+
+    @Override
+    protected Route determineCurrentLookupKey() {
+        if (lagMonitor != null
+                && EXTRACTION_READ.get() != null
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && lagMonitor.isReplicaUsable()) {
+            return Route.REPLICA;
+        }
+        return EXTRACTION_THREAD.get() != null ? Route.EXTRACTION : Route.WEB;
+    }
+}
@@ -0,0 +1,31 @@
+package vine.vine.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import vine.vine.domain.dto.response.ExtractionLimiterDto;
+import vine.vine.domain.dto.response.PoolDiagnosticsDto;
+import vine.vine.service.Impl.DiagnosticsService;
+
+@RestController
+@RequestMapping("/api/v1/diagnostics")
+@RequiredArgsConstructor
+public class DiagnosticsController {
+
+    private final DiagnosticsService diagnosticsService;
+
+    // Connection usage per pool, to spot a workload running out of connections
+    @GetMapping("/pools")
+    public ResponseEntity<PoolDiagnosticsDto> getPools() {
+        return new ResponseEntity<>(diagnosticsService.getPoolDiagnostics(), HttpStatus.OK);
+    }
+
+    // Current adaptive limit on extraction queries, their average latency and whether runs are being slowed
+    @GetMapping("/extraction-limiter")
+    public ResponseEntity<ExtractionLimiterDto> getExtractionLimiter() {
+        return new ResponseEntity<>(diagnosticsService.getExtractionLimiter(), HttpStatus.OK);
+    }
+}
@@ -110,10 +110,14 @@ public class SchedulerController {
             int size,
             @RequestParam(required = false)
             @Min(value = 1, message = "Days must be at least 1")
-            Integer days) {
+            Integer days,
+            @RequestParam(required = false)
+            String cursor,
+            @RequestParam(defaultValue = "true")
+            boolean includeTotal) {
         try {
-            log.debug("Getting job history: page={}, size={}, days={}", page, size, days);
-            SchedulerHistoryResponse history = schedulerService.getJobHistory(page, size, days);
+            log.debug("Getting job history: page={}, size={}, days={}, cursor={}", page, size, days, cursor);
+            SchedulerHistoryResponse history = schedulerService.getJobHistory(page, size, days, cursor, includeTotal);
             return ResponseEntity.ok(history);
         } catch (IllegalArgumentException e) {
             log.error("Invalid history request parameters: page={}, size={}, days={}", page, size, days, e);
@@ -133,7 +137,7 @@ public class SchedulerController {
             int limit) {
         try {
             log.debug("Getting latest {} job executions", limit);
-            SchedulerHistoryResponse history = schedulerService.getJobHistory(0, limit, null);
+            SchedulerHistoryResponse history = schedulerService.getJobHistory(0, limit, null, null, false);
             return ResponseEntity.ok(history);
         } catch (IllegalArgumentException e) {
             log.error("Invalid limit parameter: {}", limit, e);
@@ -5,9 +5,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import vine.vine.domain.dto.response.ReferenceDataCacheStatsDto;
 import vine.vine.domain.dto.response.Systab1Response;
 import vine.vine.service.Systab1Service;
 
@@ -27,4 +31,22 @@ public class Systab1Controller {
         return new ResponseEntity<>(responses, HttpStatus.OK);
     }
 
+    // One code table (e.g. AGCY), served from the reference-data cache
+    @GetMapping("/codes/{codeKey}")
+    public ResponseEntity<List<Systab1Response>> getCodeTable(@PathVariable String codeKey) {
+        return new ResponseEntity<>(systab1Service.getCodeTable(codeKey), HttpStatus.OK);
+    }
+
+    @GetMapping("/cache")
+    public ResponseEntity<ReferenceDataCacheStatsDto> getCacheStats() {
+        return new ResponseEntity<>(systab1Service.getCacheStats(), HttpStatus.OK);
+    }
+
+    // Without codeKey every cached code table is dropped
+    @DeleteMapping("/cache")
+    public ResponseEntity<ReferenceDataCacheStatsDto> invalidateCache(@RequestParam(required = false) String codeKey) {
+        systab1Service.invalidateCache(codeKey);
+        return new ResponseEntity<>(systab1Service.getCacheStats(), HttpStatus.OK);
+    }
+
 }
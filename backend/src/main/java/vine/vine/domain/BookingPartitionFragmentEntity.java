@@ -0,0 +1,35 @@
+package vine.vine.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * DAT lines of one booking produced by a partition worker, kept until the coordinator has assembled and uploaded
+ * the run's file.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "booking_partition_fragment")
+public class BookingPartitionFragmentEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "fragment_id")
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private String runId;
+
+    @Column(name = "lease_id", nullable = false)
+    private Long leaseId;
+
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+
+    @Column(name = "lines", nullable = false, columnDefinition = "TEXT")
+    private String lines;
+}
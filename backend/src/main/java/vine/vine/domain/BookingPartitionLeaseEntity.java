@@ -0,0 +1,80 @@
+package vine.vine.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One roster partition of a distributed booking run. Nodes claim PENDING (or expired LEASED) rows, keep the lease
+ * alive with heartbeats while extracting, and mark it COMPLETED together with the partition's fragments.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "booking_partition_lease")
+public class BookingPartitionLeaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "lease_id")
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private String runId;
+
+    @Column(name = "partition_index", nullable = false)
+    private int partitionIndex;
+
+    @Column(name = "partition_count", nullable = false)
+    private int partitionCount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private LeaseStatus status;
+
+    @Column(name = "owner")
+    private String owner;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    // Fallback start of the processing window when the partition has no watermark yet
+    @Column(name = "run_process_from_time", nullable = false)
+    private LocalDateTime runProcessFromTime;
+
+    // Coordinator's pinned configuration (SysConfigService.exportSnapshot), so every partition of a run extracts
+    // with the same values
+    @Column(name = "config_snapshot", columnDefinition = "TEXT")
+    private String configSnapshot;
+
+    @Column(name = "process_from_time")
+    private LocalDateTime processFromTime;
+
+    @Column(name = "execution_id")
+    private Long executionId;
+
+    @Column(name = "record_count")
+    private Long recordCount;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public enum LeaseStatus {
+        PENDING, LEASED, COMPLETED, FAILED
+    }
+}
@@ -0,0 +1,69 @@
+package vine.vine.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One day of job executions rolled up by the retention job once the raw job_execution_history rows
+ * pass the retention horizon.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "job_execution_daily_summary")
+public class JobExecutionDailySummaryEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "summary_id")
+    private Long id;
+
+    @Column(name = "job_name", nullable = false)
+    private String jobName;
+
+    @Column(name = "job_group", nullable = false)
+    private String jobGroup;
+
+    @Column(name = "summary_date", nullable = false)
+    private LocalDate summaryDate;
+
+    @Column(name = "execution_count", nullable = false)
+    private long executionCount;
+
+    @Column(name = "success_count", nullable = false)
+    private long successCount;
+
+    @Column(name = "failure_count", nullable = false)
+    private long failureCount;
+
+    @Column(name = "records_processed", nullable = false)
+    private long recordsProcessed;
+
+    @Column(name = "min_duration_ms")
+    private Long minDurationMs;
+
+    @Column(name = "avg_duration_ms")
+    private Long avgDurationMs;
+
+    @Column(name = "max_duration_ms")
+    private Long maxDurationMs;
+
+    // Executions that had a duration, used to weight avg_duration_ms when a day is merged again
+    @Column(name = "duration_samples", nullable = false)
+    private long durationSamples;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
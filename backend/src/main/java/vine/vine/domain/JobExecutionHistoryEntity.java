@@ -48,6 +48,10 @@ public class JobExecutionHistoryEntity {
     @Column(name = "records_processed")
     private Long recordsProcessed;
 
+    // Per-stage wall time and volume of the run as JSON, see RunMetrics
+    @Column(name = "stage_metrics", columnDefinition = "TEXT")
+    private String stageMetrics;
+
     @Column(name = "duration_ms")
     private Long durationMs;
 
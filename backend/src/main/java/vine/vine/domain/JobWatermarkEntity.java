@@ -0,0 +1,53 @@
+package vine.vine.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Processing watermark per job and partition: the processToTime of the last completed run,
+ * so the next run starts from it without scanning job_execution_history.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "job_watermark")
+@IdClass(JobWatermarkEntity.WatermarkId.class)
+public class JobWatermarkEntity {
+
+    @Id
+    @Column(name = "job_name")
+    private String jobName;
+
+    @Id
+    @Column(name = "partition_key")
+    private String partitionKey;
+
+    @Column(name = "watermark_time", nullable = false)
+    private LocalDateTime watermarkTime;
+
+    @Column(name = "execution_id")
+    private Long executionId;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class WatermarkId implements Serializable {
+        private String jobName;
+        private String partitionKey;
+    }
+}
@@ -110,6 +110,11 @@ public class Nmmain {
 
         // ✅ Helper method to safely convert string DOB to LocalDate
     public LocalDate getDobAsLocalDate() {
+        return parseDob(dob);
+    }
+
+    // Static so projections of nmmain can format the raw dob column the same way
+    public static LocalDate parseDob(String dob) {
         if (dob == null || dob.trim().isEmpty()) {
             return null;
         }
@@ -151,7 +156,11 @@ public class Nmmain {
 
     // ✅ Helper method to get formatted DOB string for output
     public String getFormattedDob(String pattern) {
-        LocalDate localDate = getDobAsLocalDate();
+        return formatDob(dob, pattern);
+    }
+
+    public static String formatDob(String dob, String pattern) {
+        LocalDate localDate = parseDob(dob);
         if (localDate == null) {
             return "";
         }
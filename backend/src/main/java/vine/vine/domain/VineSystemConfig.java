@@ -3,6 +3,9 @@ package vine.vine.domain;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 
+/**
+ * Immutable snapshot of the vine system configuration. Every change publishes a new instance with a higher version.
+ */
 @Data
 @RequiredArgsConstructor
 public class VineSystemConfig {
@@ -20,4 +23,5 @@ public class VineSystemConfig {
     private final boolean VineUseSftp;
     private final String VineNewVineFilePath;
     private final String VineInterFile;
+    private final long version;
 }
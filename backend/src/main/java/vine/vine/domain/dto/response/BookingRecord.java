@@ -0,0 +1,7 @@
+package vine.vine.domain.dto.response;
+
+/**
+ * DAT lines generated for one booking (prisoner, charge and mugshot records), keyed by book id so fragments from
+ * several partitions can be merged back into roster order.
+ */
+public record BookingRecord(Long bookId, String lines) {}
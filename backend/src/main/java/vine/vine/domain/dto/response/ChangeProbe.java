@@ -0,0 +1,16 @@
+package vine.vine.domain.dto.response;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cheap fingerprint of the source tables feeding the DAT file; any difference between two probes means a booking
+ * run has something new to send.
+ */
+public record ChangeProbe(LocalDateTime maxAddTime, long activeBookings,
+                          LocalDateTime maxReleaseTime, long releases,
+                          LocalDateTime maxEventDate, long facilityEvents) {
+
+    public String signature() {
+        return maxAddTime + "|" + activeBookings + "|" + maxReleaseTime + "|" + releases + "|" + maxEventDate + "|" + facilityEvents;
+    }
+}
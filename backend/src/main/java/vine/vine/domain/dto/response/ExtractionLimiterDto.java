@@ -0,0 +1,26 @@
+package vine.vine.domain.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExtractionLimiterDto {
+    private boolean enabled;
+    private int currentLimit;
+    private double exactLimit;
+    private int minLimit;
+    private int maxLimit;
+    private int inFlight;
+    // Moving average, null until the first query
+    private Long latencyMs;
+    private long latencyTargetMs;
+    private boolean strained;
+    private long queriesThatWaited;
+    private long chunkPauses;
+    private LocalDateTime lastAdjustedAt;
+}
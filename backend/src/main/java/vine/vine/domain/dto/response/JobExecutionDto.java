@@ -1,5 +1,6 @@
 package vine.vine.domain.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonRawValue;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -24,6 +25,10 @@ public class JobExecutionDto {
     private Long durationMs;
     private LocalDateTime processFromTime;
     private LocalDateTime processToTime;
+
+    // Stage breakdown recorded by the run, embedded as JSON
+    @JsonRawValue
+    private String stageMetrics;
     
     // ✅ NEW: Add display message
     private String message;
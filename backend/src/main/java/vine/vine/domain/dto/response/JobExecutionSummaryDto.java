@@ -0,0 +1,21 @@
+package vine.vine.domain.dto.response;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobExecutionSummaryDto {
+    private LocalDate date;
+    private long executionCount;
+    private long successCount;
+    private long failureCount;
+    private long recordsProcessed;
+    private Long minDurationMs;
+    private Long avgDurationMs;
+    private Long maxDurationMs;
+}
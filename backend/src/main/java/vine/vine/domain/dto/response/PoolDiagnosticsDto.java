@@ -0,0 +1,19 @@
+package vine.vine.domain.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PoolDiagnosticsDto {
+    private List<PoolStatsDto> pools;
+    private boolean replicaEnabled;
+    private boolean replicaUsable;
+    private Long replicaLagSeconds;
+    private LocalDateTime replicaCheckedAt;
+}
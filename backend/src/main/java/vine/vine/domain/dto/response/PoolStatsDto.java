@@ -0,0 +1,19 @@
+package vine.vine.domain.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PoolStatsDto {
+    private String poolName;
+    private boolean started;
+    private int activeConnections;
+    private int idleConnections;
+    private int totalConnections;
+    private int threadsAwaitingConnection;
+    private int maximumPoolSize;
+    private int minimumIdle;
+}
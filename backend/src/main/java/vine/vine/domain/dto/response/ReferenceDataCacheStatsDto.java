@@ -0,0 +1,25 @@
+package vine.vine.domain.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReferenceDataCacheStatsDto {
+    private List<String> cachedCodeKeys;
+    private int maxCodeTables;
+    private long ttlSeconds;
+    private long hits;
+    private long misses;
+    private double hitRate;
+    private long loads;
+    private long evictions;
+    private long totalLoadTimeMs;
+    private long lastLoadTimeMs;
+    private LocalDateTime lastLoadedAt;
+}
@@ -0,0 +1,5 @@
+package vine.vine.domain.dto.response;
+
+import java.time.LocalDateTime;
+
+public record ReleaseEvent(Long bookId, Long nameId, LocalDateTime releaseTime) {}
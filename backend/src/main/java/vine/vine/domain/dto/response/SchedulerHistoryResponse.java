@@ -11,7 +11,9 @@ import java.util.List;
 @AllArgsConstructor
 public class SchedulerHistoryResponse {
     private List<JobExecutionDto> executions;
-    private long totalCount;
+    private long totalCount; // -1 when the total was not requested
     private int page;
     private int size;
+    private String nextCursor; // pass back as ?cursor= for the next page; null on the last page
+    private List<JobExecutionSummaryDto> dailySummaries; // rolled-up days past the retention horizon in the requested range, on every page
 }
\ No newline at end of file
@@ -30,4 +30,8 @@ public class SchedulerStatusDto {
     // Added: Additional useful fields
     private LocalDateTime lastSuccessfulRun;
     private String lastErrorMessage;
+
+    // Cluster information
+    private boolean clustered;
+    private String schedulerInstanceId; // node answering this request
 }
\ No newline at end of file
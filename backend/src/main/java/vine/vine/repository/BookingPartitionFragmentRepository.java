@@ -0,0 +1,20 @@
+package vine.vine.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import vine.vine.domain.BookingPartitionFragmentEntity;
+
+import java.util.List;
+
+@Repository
+public interface BookingPartitionFragmentRepository extends JpaRepository<BookingPartitionFragmentEntity, Long> {
+
+    List<BookingPartitionFragmentEntity> findByRunIdOrderByBookId(String runId);
+
+    @Modifying
+    @Query("DELETE FROM BookingPartitionFragmentEntity f WHERE f.runId = :runId")
+    int deleteByRunId(@Param("runId") String runId);
+}
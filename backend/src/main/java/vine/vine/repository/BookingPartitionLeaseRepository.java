@@ -0,0 +1,62 @@
+package vine.vine.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import vine.vine.domain.BookingPartitionLeaseEntity;
+import vine.vine.domain.BookingPartitionLeaseEntity.LeaseStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BookingPartitionLeaseRepository extends JpaRepository<BookingPartitionLeaseEntity, Long> {
+
+    List<BookingPartitionLeaseEntity> findByRunIdOrderByPartitionIndex(String runId);
+
+    long countByRunIdAndStatus(String runId, LeaseStatus status);
+
+    // Expiry is set and compared in database time (CURRENT_TIMESTAMP), so clock skew between nodes cannot make a
+    // live lease look expired or keep a dead one alive
+
+    // Oldest partitions that are free to claim: never leased, or whose owner stopped heartbeating
+    @Query("SELECT l.id FROM BookingPartitionLeaseEntity l WHERE l.status = 'PENDING' " +
+            "OR (l.status = 'LEASED' AND l.leaseExpiresAt < CURRENT_TIMESTAMP) ORDER BY l.id")
+    List<Long> findClaimableIds(Pageable pageable);
+
+    // Claims are conditional updates: of several nodes racing for the same row exactly one sees 1 updated row
+    @Modifying
+    @Query("UPDATE BookingPartitionLeaseEntity l SET l.status = 'LEASED', l.owner = :owner, " +
+            "l.leaseExpiresAt = CURRENT_TIMESTAMP + :leaseSeconds SECOND, l.attempts = l.attempts + 1 " +
+            "WHERE l.id = :id AND (l.status = 'PENDING' OR (l.status = 'LEASED' AND l.leaseExpiresAt < CURRENT_TIMESTAMP))")
+    int claim(@Param("id") Long id, @Param("owner") String owner, @Param("leaseSeconds") long leaseSeconds);
+
+    @Modifying
+    @Query("UPDATE BookingPartitionLeaseEntity l SET l.leaseExpiresAt = CURRENT_TIMESTAMP + :leaseSeconds SECOND " +
+            "WHERE l.id = :id AND l.owner = :owner AND l.status = 'LEASED'")
+    int heartbeat(@Param("id") Long id, @Param("owner") String owner, @Param("leaseSeconds") long leaseSeconds);
+
+    @Modifying
+    @Query("UPDATE BookingPartitionLeaseEntity l SET l.status = 'COMPLETED', l.processFromTime = :processFromTime, " +
+            "l.executionId = :executionId, l.recordCount = :recordCount " +
+            "WHERE l.id = :id AND l.owner = :owner AND l.status = 'LEASED'")
+    int complete(@Param("id") Long id, @Param("owner") String owner, @Param("processFromTime") LocalDateTime processFromTime,
+                 @Param("executionId") Long executionId, @Param("recordCount") long recordCount);
+
+    @Modifying
+    @Query("UPDATE BookingPartitionLeaseEntity l SET l.status = :status, l.owner = NULL, l.leaseExpiresAt = NULL, " +
+            "l.errorMessage = :errorMessage WHERE l.id = :id AND l.owner = :owner AND l.status = 'LEASED'")
+    int release(@Param("id") Long id, @Param("owner") String owner, @Param("status") LeaseStatus status,
+                @Param("errorMessage") String errorMessage);
+
+    // Runs left behind by a coordinator that died before finishing or abandoning them
+    @Query("SELECT DISTINCT l.runId FROM BookingPartitionLeaseEntity l WHERE l.createdAt < :cutoff")
+    List<String> findRunIdsCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM BookingPartitionLeaseEntity l WHERE l.runId = :runId")
+    int deleteByRunId(@Param("runId") String runId);
+}
@@ -0,0 +1,23 @@
+package vine.vine.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import vine.vine.domain.JobExecutionDailySummaryEntity;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface JobExecutionDailySummaryRepository extends JpaRepository<JobExecutionDailySummaryEntity, Long> {
+
+    Optional<JobExecutionDailySummaryEntity> findByJobNameAndJobGroupAndSummaryDate(String jobName, String jobGroup, LocalDate summaryDate);
+
+    List<JobExecutionDailySummaryEntity> findByJobNameAndJobGroupAndSummaryDateGreaterThanEqualOrderBySummaryDateDesc(String jobName, String jobGroup, LocalDate from);
+
+    @Query("SELECT COALESCE(SUM(s.executionCount), 0) AS total, SUM(s.successCount) AS successful, SUM(s.failureCount) AS failed " +
+            "FROM JobExecutionDailySummaryEntity s WHERE s.jobName = :jobName AND s.jobGroup = :jobGroup")
+    JobExecutionHistoryRepository.ExecutionStats getSummarizedStats(@Param("jobName") String jobName, @Param("jobGroup") String jobGroup);
+}
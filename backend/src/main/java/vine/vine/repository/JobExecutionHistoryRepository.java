@@ -1,6 +1,7 @@
 package vine.vine.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -39,4 +40,83 @@ public interface JobExecutionHistoryRepository extends JpaRepository<JobExecutio
 
     @Query("SELECT j FROM JobExecutionHistoryEntity j WHERE j.jobName = :jobName AND j.jobGroup = :jobGroup AND j.status = 'COMPLETED' ORDER BY j.endTime DESC LIMIT 1")
     JobExecutionHistoryEntity findLastSuccessfulExecution(@Param("jobName") String jobName, @Param("jobGroup") String jobGroup);
+
+    // Counts computed by the database, so status calls don't load the whole history
+    @Query("SELECT COUNT(j) AS total, " +
+            "SUM(CASE WHEN j.status = 'COMPLETED' THEN 1 ELSE 0 END) AS successful, " +
+            "SUM(CASE WHEN j.status = 'FAILED' THEN 1 ELSE 0 END) AS failed " +
+            "FROM JobExecutionHistoryEntity j WHERE j.jobName = :jobName AND j.jobGroup = :jobGroup")
+    ExecutionStats getExecutionStats(@Param("jobName") String jobName, @Param("jobGroup") String jobGroup);
+
+    Optional<JobExecutionHistoryEntity> findFirstByJobNameAndJobGroupAndStatusOrderByStartTimeDesc(String jobName, String jobGroup, JobExecutionHistoryEntity.ExecutionStatus status);
+
+    // Only used to seed a job's watermark the first time it has none
+    Optional<JobExecutionHistoryEntity> findFirstByJobNameAndJobGroupAndStatusAndProcessToTimeIsNotNullOrderByStartTimeDesc(String jobName, String jobGroup, JobExecutionHistoryEntity.ExecutionStatus status);
+
+    // Keyset pagination on (start_time, execution_id), newest first; pass PageRequest.of(0, n) to cap the rows
+    @Query("SELECT j FROM JobExecutionHistoryEntity j WHERE j.jobName = :jobName AND j.jobGroup = :jobGroup " +
+            "AND j.startTime >= :from ORDER BY j.startTime DESC, j.id DESC")
+    List<JobExecutionHistoryEntity> findHistoryPage(@Param("jobName") String jobName, @Param("jobGroup") String jobGroup,
+                                                    @Param("from") LocalDateTime from, Pageable pageable);
+
+    @Query("SELECT j FROM JobExecutionHistoryEntity j WHERE j.jobName = :jobName AND j.jobGroup = :jobGroup " +
+            "AND j.startTime >= :from " +
+            "AND (j.startTime < :cursorTime OR (j.startTime = :cursorTime AND j.id < :cursorId)) " +
+            "ORDER BY j.startTime DESC, j.id DESC")
+    List<JobExecutionHistoryEntity> findHistoryPageAfter(@Param("jobName") String jobName, @Param("jobGroup") String jobGroup,
+                                                         @Param("from") LocalDateTime from,
+                                                         @Param("cursorTime") LocalDateTime cursorTime,
+                                                         @Param("cursorId") Long cursorId, Pageable pageable);
+
+    @Query("SELECT COUNT(j) FROM JobExecutionHistoryEntity j WHERE j.jobName = :jobName AND j.jobGroup = :jobGroup AND j.startTime >= :from")
+    long countHistory(@Param("jobName") String jobName, @Param("jobGroup") String jobGroup, @Param("from") LocalDateTime from);
+
+    // Retention: oldest raw row before the horizon, the per-job roll-up of one day, and its deletion
+    @Query("SELECT MIN(j.startTime) FROM JobExecutionHistoryEntity j WHERE j.startTime < :cutoff")
+    LocalDateTime findOldestStartTimeBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    @Query("SELECT j.jobName AS jobName, j.jobGroup AS jobGroup, COUNT(j) AS executions, " +
+            "SUM(CASE WHEN j.status = 'COMPLETED' THEN 1 ELSE 0 END) AS successful, " +
+            "SUM(CASE WHEN j.status = 'FAILED' THEN 1 ELSE 0 END) AS failed, " +
+            "COALESCE(SUM(j.recordsProcessed), 0) AS recordsProcessed, " +
+            "MIN(j.durationMs) AS minDurationMs, AVG(j.durationMs) AS avgDurationMs, MAX(j.durationMs) AS maxDurationMs, " +
+            "COUNT(j.durationMs) AS durationSamples " +
+            "FROM JobExecutionHistoryEntity j WHERE j.startTime >= :from AND j.startTime < :to " +
+            "GROUP BY j.jobName, j.jobGroup")
+    List<DailyRollup> rollUpRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM JobExecutionHistoryEntity j WHERE j.startTime >= :from AND j.startTime < :to")
+    int deleteByStartTimeRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    interface DailyRollup {
+        String getJobName();
+
+        String getJobGroup();
+
+        long getExecutions();
+
+        long getSuccessful();
+
+        long getFailed();
+
+        long getRecordsProcessed();
+
+        Long getMinDurationMs();
+
+        Double getAvgDurationMs();
+
+        Long getMaxDurationMs();
+
+        long getDurationSamples();
+    }
+
+    interface ExecutionStats {
+        long getTotal();
+
+        // SUM over no rows is NULL
+        Long getSuccessful();
+
+        Long getFailed();
+    }
 }
\ No newline at end of file
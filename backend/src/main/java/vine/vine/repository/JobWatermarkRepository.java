@@ -0,0 +1,9 @@
+package vine.vine.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import vine.vine.domain.JobWatermarkEntity;
+
+@Repository
+public interface JobWatermarkRepository extends JpaRepository<JobWatermarkEntity, JobWatermarkEntity.WatermarkId> {
+}
@@ -4,10 +4,14 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import vine.vine.domain.Systab1;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface Systab1Repository extends JpaRepository<Systab1, Integer> {
     Optional<Systab1> findFirstByCodeAgcyAndCodeKey(String codeAgcy, String codeKey);
+
+    // Whole code table (e.g. every AGCY row) in one query, for the reference-data cache
+    List<Systab1> findByCodeKeyOrderBySystab1idAsc(String codeKey);
 }
 
@@ -1,11 +1,21 @@
 package vine.vine.repository;
 
+import java.util.List;
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import vine.vine.domain.SystemConfigEntity;
 
 @Repository
 public interface  SystemConfigRepository extends JpaRepository<SystemConfigEntity, Long>{
-    
+
+    // Lowest id first, the row that wins among duplicates everywhere else
+    Optional<SystemConfigEntity> findFirstBySysNameIgnoreCaseOrderByIdAsc(String sysName);
+
+    // gcvine*/gnvine*/glvine* rows only, oldest first so the first of any duplicates wins
+    @Query("SELECT c FROM SystemConfigEntity c WHERE LOWER(c.sysName) LIKE 'g_vine%' ORDER BY c.id")
+    List<SystemConfigEntity> findVineConfigEntries();
 }
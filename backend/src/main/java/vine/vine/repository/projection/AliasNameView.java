@@ -0,0 +1,10 @@
+package vine.vine.repository.projection;
+
+/**
+ * Alias (AKA) name written to the prisoner record
+ */
+public interface AliasNameView {
+    String getFirstname();
+
+    String getLastname();
+}
@@ -0,0 +1,16 @@
+package vine.vine.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * jmmain columns written to the prisoner record
+ */
+public interface BookingView {
+    Long getBookId();
+
+    String getAgency();
+
+    Long getFaciId();
+
+    LocalDateTime getBookDate();
+}
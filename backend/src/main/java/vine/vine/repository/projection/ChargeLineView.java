@@ -0,0 +1,24 @@
+package vine.vine.repository.projection;
+
+/**
+ * archrg columns written to the charge record
+ */
+public interface ChargeLineView {
+    Long getBookId();
+
+    String getArr_chrg();
+
+    String getFel_misd();
+
+    String getChrg_cnt();
+
+    String getChrg_seq();
+
+    String getBondamt();
+
+    String getBondtype();
+
+    Long getArmainid();
+
+    String getChrgdesc();
+}
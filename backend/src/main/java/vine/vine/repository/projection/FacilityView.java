@@ -0,0 +1,14 @@
+package vine.vine.repository.projection;
+
+/**
+ * Current housing location from jfachist
+ */
+public interface FacilityView {
+    String getFacility();
+
+    String getSection();
+
+    String getUnit();
+
+    String getBed();
+}
@@ -0,0 +1,66 @@
+package vine.vine.repository.projection;
+
+import vine.vine.domain.Nmmain;
+
+/**
+ * nmmain columns written to the prisoner record (everything except the alias columns)
+ */
+public interface PrisonerView {
+    Long getNameId();
+
+    String getStateId();
+
+    String getFirstname();
+
+    String getMiddlename();
+
+    String getLastname();
+
+    String getDob();
+
+    String getRace();
+
+    String getSex();
+
+    String getHeight();
+
+    String getWeight();
+
+    String getSsn();
+
+    String getStreetNbr();
+
+    String getStreet();
+
+    String getCity();
+
+    String getState();
+
+    String getZip();
+
+    String getBirthplace();
+
+    String getDrLic();
+
+    String getDlState();
+
+    String getMarital();
+
+    String getOccupation();
+
+    String getEye();
+
+    String getHair();
+
+    String getEmployer();
+
+    String getHphone();
+
+    String getWphone();
+
+    String getMphone();
+
+    default String getFormattedDob(String pattern) {
+        return Nmmain.formatDob(getDob(), pattern);
+    }
+}
@@ -0,0 +1,135 @@
+package vine.vine.scheduler;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import vine.vine.config.WorkloadRoutingDataSource;
+import vine.vine.domain.BookingPartitionLeaseEntity;
+import vine.vine.domain.VineSystemConfig;
+import vine.vine.domain.dto.response.BookingRecord;
+import vine.vine.service.BookingLeaseService;
+import vine.vine.service.Impl.ChargesServiceImpl;
+import vine.vine.service.Impl.SysConfigService;
+import vine.vine.service.RunMetrics;
+import vine.vine.service.SchedulerService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs on every node when vine.scheduler.partition-mode=lease: polls the lease table, extracts claimed booking
+ * partitions and stores their fragments for the coordinating node.
+ */
+@Slf4j
+@Component
+public class BookingLeaseWorker {
+
+    private static final String JOB_GROUP = "vine-group";
+
+    @Autowired
+    private BookingLeaseService leaseService;
+
+    @Autowired
+    private ChargesServiceImpl chargesService;
+
+    @Autowired
+    private SchedulerService schedulerService;
+
+    @Autowired
+    private SysConfigService sysConfigService;
+
+    @Value("${vine.scheduler.partition-mode:local}")
+    private String partitionMode;
+
+    // Partitions this node extracts at the same time
+    @Value("${vine.lease.workers:2}")
+    private int workers;
+
+    @Value("${vine.lease.poll-seconds:5}")
+    private long pollSeconds;
+
+    private ScheduledExecutorService pollExecutor;
+    private ScheduledExecutorService heartbeatExecutor;
+
+    @PostConstruct
+    public void start() {
+        if (!"lease".equalsIgnoreCase(partitionMode)) {
+            return;
+        }
+        pollExecutor = Executors.newScheduledThreadPool(workers);
+        heartbeatExecutor = Executors.newSingleThreadScheduledExecutor();
+        for (int i = 0; i < workers; i++) {
+            pollExecutor.scheduleWithFixedDelay(this::pollOnce, pollSeconds, pollSeconds, TimeUnit.SECONDS);
+        }
+        log.info("✅ Booking lease worker started on {} with {} worker(s)", leaseService.getNodeId(), workers);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (pollExecutor != null) {
+            pollExecutor.shutdownNow();
+            heartbeatExecutor.shutdownNow();
+        }
+    }
+
+    private void pollOnce() {
+        WorkloadRoutingDataSource.markExtraction();
+        try {
+            Optional<BookingPartitionLeaseEntity> claimed = leaseService.claimNext();
+            claimed.ifPresent(this::process);
+        } catch (Exception e) {
+            log.error("❌ Booking lease poll failed", e);
+        } finally {
+            WorkloadRoutingDataSource.clearExtraction();
+        }
+    }
+
+    private void process(BookingPartitionLeaseEntity lease) {
+        String partitionKey = BookingPartitionRegistry.partitionKey(lease.getPartitionIndex(), lease.getPartitionCount());
+        log.info("🔒 Claimed partition {} of run {} (attempt {})", partitionKey, lease.getRunId(), lease.getAttempts());
+
+        long heartbeatSeconds = Math.max(1, leaseService.getLeaseSeconds() / 3);
+        ScheduledFuture<?> heartbeat = heartbeatExecutor.scheduleAtFixedRate(() -> {
+            if (!leaseService.heartbeat(lease.getId())) {
+                log.warn("⚠️ Lost lease on partition {} of run {}", partitionKey, lease.getRunId());
+            }
+        }, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+
+        Long executionId = schedulerService.recordJobStart(BookingPartitionJob.JOB_NAME, JOB_GROUP,
+                "lease-" + partitionKey, leaseService.getNodeId(), LocalDateTime.now());
+        RunMetrics metrics = RunMetrics.start();
+        try {
+            LocalDateTime processFromTime = schedulerService.findWatermark(BookingPartitionJob.JOB_NAME, partitionKey)
+                    .orElse(lease.getRunProcessFromTime());
+
+            // The coordinator's snapshot, not this node's: all partitions of the run share one configuration
+            VineSystemConfig config = sysConfigService.importSnapshot(lease.getConfigSnapshot());
+            List<BookingRecord> records = chargesService.extractPartition(processFromTime, config,
+                    lease.getPartitionCount(), lease.getPartitionIndex());
+
+            if (leaseService.completeLease(lease, processFromTime, executionId, records)) {
+                schedulerService.recordStageMetrics(executionId, metrics);
+                log.info("✅ Partition {} of run {} stored {} records", partitionKey, lease.getRunId(), records.size());
+            } else {
+                schedulerService.recordJobFailure(executionId, LocalDateTime.now(), "Lease lost before completion");
+            }
+
+        } catch (Exception ex) {
+            log.error("❌ Partition {} of run {} failed", partitionKey, lease.getRunId(), ex);
+            schedulerService.recordJobFailure(executionId, LocalDateTime.now(), ex.getMessage(), metrics);
+            leaseService.releaseLease(lease, ex.getMessage());
+        } finally {
+            RunMetrics.clear();
+            heartbeat.cancel(false);
+        }
+    }
+}
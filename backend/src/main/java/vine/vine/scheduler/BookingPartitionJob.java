@@ -0,0 +1,87 @@
+package vine.vine.scheduler;
+
+import org.quartz.Job;
+import org.quartz.JobDataMap;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+import vine.vine.domain.dto.response.BookingRecord;
+import vine.vine.service.Impl.ChargesServiceImpl;
+import vine.vine.service.RunMetrics;
+import vine.vine.service.SchedulerService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Extracts one roster partition of a booking run. Scheduled once per partition by {@link BookingProcessorJob};
+ * partitions of the same run execute concurrently on the Quartz thread pool. The history row is completed by
+ * the coordinator once the merged file has been uploaded, which is also when the partition watermark advances.
+ */
+@Slf4j
+@Component
+public class BookingPartitionJob implements Job {
+
+    public static final String JOB_NAME = "bookingPartitionJob";
+    public static final String RUN_ID = "runId";
+    public static final String PARTITION_INDEX = "partitionIndex";
+    public static final String PARTITION_COUNT = "partitionCount";
+
+    private static final String JOB_GROUP = "vine-group";
+
+    @Autowired
+    private ChargesServiceImpl chargesService;
+
+    @Autowired
+    private SchedulerService schedulerService;
+
+    @Autowired
+    private BookingPartitionRegistry partitionRegistry;
+
+    @Override
+    public void execute(JobExecutionContext context) throws JobExecutionException {
+        JobDataMap data = context.getMergedJobDataMap();
+        String runId = data.getString(RUN_ID);
+        int partitionIndex = data.getInt(PARTITION_INDEX);
+        int partitionCount = data.getInt(PARTITION_COUNT);
+        String partitionKey = BookingPartitionRegistry.partitionKey(partitionIndex, partitionCount);
+
+        Long executionId = schedulerService.recordJobStart(JOB_NAME, JOB_GROUP, "partition-" + partitionKey,
+                context.getTrigger().getKey().getGroup(), LocalDateTime.now());
+
+        // The coordinator already gave up on the run, or a trigger left in the job store outlived a restart
+        BookingPartitionRegistry.PartitionedRun run = partitionRegistry.find(runId).orElse(null);
+        if (run == null) {
+            String message = "No active booking run " + runId + " for partition " + partitionKey;
+            log.error("❌ {}", message);
+            schedulerService.recordJobFailure(executionId, LocalDateTime.now(), message);
+            return;
+        }
+        RunMetrics metrics = RunMetrics.start();
+        try {
+            LocalDateTime processFromTime = schedulerService.findWatermark(JOB_NAME, partitionKey)
+                    .orElse(run.getProcessFromTime());
+
+            List<BookingRecord> records = chargesService.extractPartition(processFromTime, run.getConfig(),
+                    partitionCount, partitionIndex);
+
+            if (run.isClosed()) {
+                schedulerService.recordJobFailure(executionId, LocalDateTime.now(), "Run " + runId + " was abandoned by the coordinator");
+                return;
+            }
+            run.complete(new BookingPartitionRegistry.PartitionResult(partitionIndex, partitionKey, executionId,
+                    processFromTime, records, metrics));
+            log.info("✅ Partition {} of run {} extracted {} records", partitionKey, runId, records.size());
+
+        } catch (Exception ex) {
+            log.error("❌ Partition {} of run {} failed", partitionKey, runId, ex);
+            schedulerService.recordJobFailure(executionId, LocalDateTime.now(), ex.getMessage(), metrics);
+            run.fail(partitionIndex, ex.getMessage());
+        } finally {
+            RunMetrics.clear();
+        }
+    }
+}
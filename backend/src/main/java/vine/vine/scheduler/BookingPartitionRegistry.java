@@ -0,0 +1,121 @@
+package vine.vine.scheduler;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.stereotype.Component;
+
+import vine.vine.domain.VineSystemConfig;
+import vine.vine.domain.dto.response.BookingRecord;
+import vine.vine.service.RunMetrics;
+
+/**
+ * Hands partition results from the {@link BookingPartitionJob} instances back to the coordinating
+ * {@link BookingProcessorJob} running in the same JVM.
+ */
+@Component
+public class BookingPartitionRegistry {
+
+    private final Map<String, PartitionedRun> runs = new ConcurrentHashMap<>();
+
+    public PartitionedRun open(String runId, int partitionCount, LocalDateTime processFromTime, VineSystemConfig config) {
+        PartitionedRun run = new PartitionedRun(runId, partitionCount, processFromTime, config);
+        runs.put(runId, run);
+        return run;
+    }
+
+    public Optional<PartitionedRun> find(String runId) {
+        return Optional.ofNullable(runs.get(runId));
+    }
+
+    public void close(String runId) {
+        PartitionedRun run = runs.remove(runId);
+        if (run != null) {
+            run.closed = true;
+        }
+    }
+
+    public static String partitionKey(int partitionIndex, int partitionCount) {
+        return partitionIndex + "/" + partitionCount;
+    }
+
+    public record PartitionResult(int partitionIndex, String partitionKey, Long executionId,
+                                  LocalDateTime processFromTime, List<BookingRecord> records, RunMetrics metrics) {}
+
+    public static class PartitionedRun {
+        private final String runId;
+        private final int partitionCount;
+        private final LocalDateTime processFromTime;
+        private final VineSystemConfig config;
+        private final AtomicReferenceArray<PartitionResult> results;
+        private final Map<Integer, String> failures = new ConcurrentHashMap<>();
+        private final CountDownLatch remaining;
+        private volatile boolean closed;
+
+        private PartitionedRun(String runId, int partitionCount, LocalDateTime processFromTime, VineSystemConfig config) {
+            this.runId = runId;
+            this.partitionCount = partitionCount;
+            this.processFromTime = processFromTime;
+            this.config = config;
+            this.results = new AtomicReferenceArray<>(partitionCount);
+            this.remaining = new CountDownLatch(partitionCount);
+        }
+
+        public String getRunId() {
+            return runId;
+        }
+
+        public int getPartitionCount() {
+            return partitionCount;
+        }
+
+        public LocalDateTime getProcessFromTime() {
+            return processFromTime;
+        }
+
+        public VineSystemConfig getConfig() {
+            return config;
+        }
+
+        public boolean isClosed() {
+            return closed;
+        }
+
+        public void complete(PartitionResult result) {
+            results.set(result.partitionIndex(), result);
+            remaining.countDown();
+        }
+
+        public void fail(int partitionIndex, String message) {
+            failures.put(partitionIndex, message);
+            remaining.countDown();
+        }
+
+        public boolean await(Duration timeout) throws InterruptedException {
+            return remaining.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        public Map<Integer, String> getFailures() {
+            return failures;
+        }
+
+        /** Completed partitions in partition order */
+        public List<PartitionResult> getResults() {
+            List<PartitionResult> completed = new ArrayList<>();
+            for (int i = 0; i < partitionCount; i++) {
+                if (results.get(i) != null) {
+                    completed.add(results.get(i));
+                }
+            }
+            return completed;
+        }
+    }
+}
@@ -2,16 +2,30 @@ package vine.vine.scheduler;
 
 import org.quartz.DisallowConcurrentExecution;
 import org.quartz.Job;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import lombok.extern.slf4j.Slf4j;
+import vine.vine.domain.BookingPartitionLeaseEntity;
+import vine.vine.domain.VineSystemConfig;
+import vine.vine.domain.dto.response.BookingRecord;
 import vine.vine.service.Impl.ChargesServiceImpl;
+import vine.vine.service.Impl.SysConfigService;
+import vine.vine.service.BookingLeaseService;
+import vine.vine.service.RunMetrics;
 import vine.vine.service.SchedulerService;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Slf4j
 @Component
@@ -24,6 +38,29 @@ public class BookingProcessorJob implements Job {
     @Autowired
     private SchedulerService schedulerService;
 
+    @Autowired
+    private SysConfigService sysConfigService;
+
+    @Autowired
+    private BookingPartitionRegistry partitionRegistry;
+
+    @Autowired
+    private BookingLeaseService leaseService;
+
+    // Roster partitions extracted concurrently per run; 1 keeps the single-threaded run
+    @Value("${vine.scheduler.partitions:1}")
+    private int partitions;
+
+    @Value("${vine.scheduler.partition-timeout-minutes:60}")
+    private long partitionTimeoutMinutes;
+
+    // local: partitions run as Quartz jobs in this JVM; lease: any node's BookingLeaseWorker may claim them
+    @Value("${vine.scheduler.partition-mode:local}")
+    private String partitionMode;
+
+    @Value("${vine.lease.poll-seconds:5}")
+    private long leasePollSeconds;
+
     private static final String JOB_NAME = "bookingProcessorJob";
     private static final String JOB_GROUP = "vine-group";
 
@@ -31,6 +68,7 @@ public class BookingProcessorJob implements Job {
     public void execute(JobExecutionContext context) throws JobExecutionException {
         Long executionId = null;
         LocalDateTime startTime = LocalDateTime.now();
+        RunMetrics metrics = RunMetrics.start();
         
         try {
             log.info("Starting Quartz booking processor job execution");
@@ -47,8 +85,18 @@ public class BookingProcessorJob implements Job {
             // Get the processing start time
             LocalDateTime processFromTime = schedulerService.getProcessingStartTime(JOB_NAME);
             
+            // Pin one configuration snapshot for the whole run
+            VineSystemConfig config = sysConfigService.pinConfig();
+
             // Process bookings
-            long recordsProcessed = chargesService.processBookings(processFromTime);
+            long recordsProcessed;
+            if (partitions <= 1) {
+                recordsProcessed = chargesService.processBookings(processFromTime, config);
+            } else if ("lease".equalsIgnoreCase(partitionMode)) {
+                recordsProcessed = processLeased(executionId, processFromTime, config);
+            } else {
+                recordsProcessed = processPartitioned(context, executionId, processFromTime, config);
+            }
             
             // Record successful completion
             schedulerService.recordJobCompletion(
@@ -56,22 +104,141 @@ public class BookingProcessorJob implements Job {
                 LocalDateTime.now(), 
                 recordsProcessed, 
                 processFromTime, 
-                LocalDateTime.now()
+                LocalDateTime.now(),
+                SchedulerService.DEFAULT_PARTITION,
+                metrics
             );
             
             // Update last successful run time
             schedulerService.updateLastRunTime(JOB_NAME, LocalDateTime.now());
             
             log.info("Completed Quartz booking processor job execution. Processed {} records", recordsProcessed);
+            log.info("📊 Run totals: {}", metrics.summary());
             
         } catch (Exception ex) {
             log.error("Error during Quartz booking processor job execution", ex);
             
             if (executionId != null) {
-                schedulerService.recordJobFailure(executionId, LocalDateTime.now(), ex.getMessage());
+                schedulerService.recordJobFailure(executionId, LocalDateTime.now(), ex.getMessage(), metrics);
             }
             
             throw new JobExecutionException("Job execution failed", ex);
+        } finally {
+            RunMetrics.clear();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Fans the run out to one {@link BookingPartitionJob} per partition, waits for all of them, then writes and
+     * uploads a single merged DAT file. Partition history rows and watermarks are only completed after the
+     * upload succeeded; if any partition fails the whole run fails and nothing advances.
+     */
+    private long processPartitioned(JobExecutionContext context, Long executionId, LocalDateTime processFromTime,
+                                    VineSystemConfig config) throws Exception {
+        String runId = executionId != null ? String.valueOf(executionId) : String.valueOf(System.currentTimeMillis());
+        log.info("🔀 Splitting booking run {} into {} partitions", runId, partitions);
+
+        chargesService.clearNewMugshotDir(config);
+        BookingPartitionRegistry.PartitionedRun run = partitionRegistry.open(runId, partitions, processFromTime, config);
+        try {
+            for (int i = 0; i < partitions; i++) {
+                schedulePartition(context, runId, i);
+            }
+
+            if (!run.await(Duration.ofMinutes(partitionTimeoutMinutes))) {
+                throw new IllegalStateException("Timed out after " + partitionTimeoutMinutes + " minutes waiting for booking partitions");
+            }
+            if (!run.getFailures().isEmpty()) {
+                throw new IllegalStateException("Booking partitions failed: " + run.getFailures());
+            }
+
+            List<BookingRecord> merged = run.getResults().stream()
+                .flatMap(result -> result.records().stream())
+                .toList();
+            chargesService.writeAndTransfer(merged, config);
+
+            LocalDateTime processToTime = LocalDateTime.now();
+            for (BookingPartitionRegistry.PartitionResult result : run.getResults()) {
+                RunMetrics.current().merge(result.metrics());
+                schedulerService.recordJobCompletion(result.executionId(), processToTime, result.records().size(),
+                    result.processFromTime(), processToTime, result.partitionKey(), result.metrics());
+            }
+            return merged.size();
+
+        } catch (Exception ex) {
+            for (BookingPartitionRegistry.PartitionResult result : run.getResults()) {
+                schedulerService.recordJobFailure(result.executionId(), LocalDateTime.now(),
+                    "Run " + runId + " failed: " + ex.getMessage());
+            }
+            throw ex;
+        } finally {
+            partitionRegistry.close(runId);
+        }
+    }
+
+    /**
+     * Publishes one lease per partition for the nodes' {@link BookingLeaseWorker}s, waits until every lease is
+     * completed, then assembles the stored fragments into one DAT file and one upload. Each lease carries this
+     * run's pinned configuration, so workers extract with the same values as the upload. Mugshot files are copied
+     * by whichever node extracts the booking, so the mugshot output directory must be shared between nodes.
+     */
+    private long processLeased(Long executionId, LocalDateTime processFromTime, VineSystemConfig config) throws Exception {
+        String runId = executionId != null ? String.valueOf(executionId) : java.util.UUID.randomUUID().toString();
+        log.info("🔀 Publishing booking run {} as {} partition leases", runId, partitions);
+
+        leaseService.sweepStaleRuns();
+        chargesService.clearNewMugshotDir(config);
+        leaseService.createLeases(runId, partitions, processFromTime, sysConfigService.exportSnapshot(config));
+        try {
+            LocalDateTime deadline = LocalDateTime.now().plusMinutes(partitionTimeoutMinutes);
+            while (leaseService.countLeases(runId, BookingPartitionLeaseEntity.LeaseStatus.COMPLETED) < partitions) {
+                if (leaseService.countLeases(runId, BookingPartitionLeaseEntity.LeaseStatus.FAILED) > 0) {
+                    throw new IllegalStateException("Booking partition leases failed for run " + runId);
+                }
+                if (LocalDateTime.now().isAfter(deadline)) {
+                    throw new IllegalStateException("Timed out after " + partitionTimeoutMinutes + " minutes waiting for partition leases");
+                }
+                Thread.sleep(Duration.ofSeconds(leasePollSeconds).toMillis());
+            }
+
+            List<BookingRecord> merged = leaseService.collectRecords(runId);
+            chargesService.writeAndTransfer(merged, config);
+
+            LocalDateTime processToTime = LocalDateTime.now();
+            for (BookingPartitionLeaseEntity lease : leaseService.getLeases(runId)) {
+                // Workers stored their stage metrics on the partition rows
+                schedulerService.findStageMetrics(lease.getExecutionId()).ifPresent(RunMetrics.current()::merge);
+                schedulerService.recordJobCompletion(lease.getExecutionId(), processToTime, lease.getRecordCount(),
+                    lease.getProcessFromTime(), processToTime,
+                    BookingPartitionRegistry.partitionKey(lease.getPartitionIndex(), lease.getPartitionCount()));
+            }
+            leaseService.finishRun(runId);
+            return merged.size();
+
+        } catch (Exception ex) {
+            for (BookingPartitionLeaseEntity lease : leaseService.getLeases(runId)) {
+                if (lease.getStatus() == BookingPartitionLeaseEntity.LeaseStatus.COMPLETED) {
+                    schedulerService.recordJobFailure(lease.getExecutionId(), LocalDateTime.now(),
+                        "Run " + runId + " failed: " + ex.getMessage());
+                }
+            }
+            leaseService.abandonRun(runId, ex.getMessage());
+            throw ex;
+        }
+    }
+
+    private void schedulePartition(JobExecutionContext context, String runId, int partitionIndex) throws SchedulerException {
+        String identity = BookingPartitionJob.JOB_NAME + "-" + runId + "-" + partitionIndex;
+        JobDetail jobDetail = JobBuilder.newJob(BookingPartitionJob.class)
+            .withIdentity(identity, JOB_GROUP)
+            .usingJobData(BookingPartitionJob.RUN_ID, runId)
+            .usingJobData(BookingPartitionJob.PARTITION_INDEX, partitionIndex)
+            .usingJobData(BookingPartitionJob.PARTITION_COUNT, partitions)
+            .build();
+        Trigger trigger = TriggerBuilder.newTrigger()
+            .withIdentity(identity, JOB_GROUP)
+            .startNow()
+            .build();
+        context.getScheduler().scheduleJob(jobDetail, trigger);
+    }
+}
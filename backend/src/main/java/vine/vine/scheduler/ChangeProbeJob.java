@@ -0,0 +1,83 @@
+package vine.vine.scheduler;
+
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobDataMap;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.PersistJobDataAfterExecution;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+import vine.vine.domain.dto.response.ChangeProbe;
+import vine.vine.service.Impl.BookingFetcher;
+import vine.vine.service.SchedulerService;
+
+/**
+ * Polls a cheap fingerprint of the source tables every few seconds and triggers the booking job only when it
+ * changed: once the first change has waited for the debounce (so bursts of edits collapse into one run), or when
+ * no run has been triggered for the maximum interval. With vine.probe.enabled this job's trigger replaces the
+ * interval trigger, so it is scheduled by starting the scheduler and removed by stopping it. Probe state lives in
+ * the persisted JobDataMap, so a clustered peer continues where another node stopped.
+ */
+@Slf4j
+@Component
+@DisallowConcurrentExecution
+@PersistJobDataAfterExecution
+public class ChangeProbeJob implements Job {
+
+    static final String LAST_SIGNATURE = "lastSignature";
+    static final String PENDING_SINCE = "pendingSince";
+    static final String LAST_TRIGGERED = "lastTriggered";
+
+    @Autowired
+    private BookingFetcher bookingFetcher;
+
+    @Autowired
+    private SchedulerService schedulerService;
+
+    @Value("${vine.probe.debounce-seconds:10}")
+    private long debounceSeconds;
+
+    @Value("${vine.probe.max-interval-minutes:30}")
+    private long maxIntervalMinutes;
+
+    @Override
+    public void execute(JobExecutionContext context) throws JobExecutionException {
+        try {
+            JobDataMap data = context.getJobDetail().getJobDataMap();
+            long now = System.currentTimeMillis();
+
+            ChangeProbe probe = bookingFetcher.fetchChangeProbe();
+            String signature = probe.signature();
+            String lastSignature = data.containsKey(LAST_SIGNATURE) ? data.getString(LAST_SIGNATURE) : null;
+            long pendingSince = data.containsKey(PENDING_SINCE) ? data.getLong(PENDING_SINCE) : 0;
+            long lastTriggered = data.containsKey(LAST_TRIGGERED) ? data.getLong(LAST_TRIGGERED) : now;
+
+            if (lastSignature != null && !signature.equals(lastSignature) && pendingSince == 0) {
+                pendingSince = now;
+                log.info("🔔 Source change detected: {}", probe);
+            }
+
+            boolean debounced = pendingSince > 0 && now - pendingSince >= debounceSeconds * 1000;
+            boolean overdue = maxIntervalMinutes > 0 && now - lastTriggered >= maxIntervalMinutes * 60_000;
+
+            if (debounced || overdue) {
+                log.info("🎯 Change probe triggering booking run ({})", debounced ? "source changed" : "maximum interval reached");
+                schedulerService.triggerJobNow();
+                pendingSince = 0;
+                lastTriggered = now;
+            }
+
+            data.put(LAST_SIGNATURE, signature);
+            data.put(PENDING_SINCE, pendingSince);
+            data.put(LAST_TRIGGERED, lastTriggered);
+
+        } catch (Exception e) {
+            log.error("❌ Change probe failed", e);
+            throw new JobExecutionException(e, false);
+        }
+    }
+}
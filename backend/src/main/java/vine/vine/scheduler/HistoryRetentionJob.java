@@ -0,0 +1,31 @@
+package vine.vine.scheduler;
+
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+import vine.vine.service.JobHistoryRetentionService;
+
+@Slf4j
+@Component
+@DisallowConcurrentExecution
+public class HistoryRetentionJob implements Job {
+
+    @Autowired
+    private JobHistoryRetentionService retentionService;
+
+    @Override
+    public void execute(JobExecutionContext context) throws JobExecutionException {
+        try {
+            log.info("🧹 History retention job started");
+            retentionService.rollUpAndPrune();
+        } catch (Exception e) {
+            log.error("❌ History retention job failed", e);
+            throw new JobExecutionException(e, false);
+        }
+    }
+}
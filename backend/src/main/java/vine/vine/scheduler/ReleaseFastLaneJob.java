@@ -0,0 +1,145 @@
+package vine.vine.scheduler;
+
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobDataMap;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.PersistJobDataAfterExecution;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+import vine.vine.domain.dto.response.BookingNamePair;
+import vine.vine.domain.dto.response.ReleaseEvent;
+import vine.vine.service.Impl.BookingFetcher;
+import vine.vine.service.Impl.ChargesServiceImpl;
+import vine.vine.service.Impl.SysConfigService;
+import vine.vine.service.RunMetrics;
+import vine.vine.service.SchedulerService;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Ships releases within seconds instead of waiting for the next full-roster run. Polls jrelease from its own
+ * release-time watermark and sends just those bookings' prisoner and charge records in a separate DAT file.
+ * It has its own job key, so it runs alongside {@link BookingProcessorJob} rather than queueing behind it.
+ * <p>
+ * Each poll re-reads an overlap window before the watermark, so releases committed late, entered with an earlier
+ * release time or not yet on a lagging replica are still picked up. Releases already shipped within that window
+ * are kept in the persisted JobDataMap and skipped.
+ */
+@Slf4j
+@Component
+@DisallowConcurrentExecution
+@PersistJobDataAfterExecution
+public class ReleaseFastLaneJob implements Job {
+
+    public static final String JOB_NAME = "releaseFastLaneJob";
+    private static final String JOB_GROUP = "vine-group";
+
+    // bookId@releaseTime of the releases shipped within the overlap window, comma separated
+    static final String SHIPPED = "shippedReleases";
+
+    // Seed while jrelease is still empty: every later release is new
+    private static final LocalDateTime NO_RELEASES = LocalDateTime.of(1900, 1, 1, 0, 0);
+
+    @Autowired
+    private BookingFetcher bookingFetcher;
+
+    @Autowired
+    private ChargesServiceImpl chargesService;
+
+    @Autowired
+    private SchedulerService schedulerService;
+
+    @Autowired
+    private SysConfigService sysConfigService;
+
+    @Value("${vine.fastlane.file-name:VineRelease.dat}")
+    private String fileName;
+
+    @Value("${vine.fastlane.overlap-seconds:300}")
+    private long overlapSeconds;
+
+    @Override
+    public void execute(JobExecutionContext context) throws JobExecutionException {
+        if (!schedulerService.isSchedulerRunning()) {
+            return;
+        }
+
+        LocalDateTime since = schedulerService.findWatermark(JOB_NAME, SchedulerService.DEFAULT_PARTITION).orElse(null);
+        if (since == null) {
+            // First start: earlier releases are covered by the full-roster run. Seeded from jrelease rather than
+            // this node's clock, which may run ahead of the database
+            schedulerService.initializeWatermark(JOB_NAME, SchedulerService.DEFAULT_PARTITION,
+                bookingFetcher.fetchLatestReleaseTime().orElse(NO_RELEASES));
+            return;
+        }
+
+        JobDataMap data = context.getJobDetail().getJobDataMap();
+        Set<String> shipped = parseShipped(data.containsKey(SHIPPED) ? data.getString(SHIPPED) : "");
+        List<ReleaseEvent> releases = bookingFetcher.fetchReleasesSince(since.minusSeconds(overlapSeconds)).stream()
+            .filter(release -> !shipped.contains(shippedKey(release)))
+            .toList();
+        if (releases.isEmpty()) {
+            return;
+        }
+
+        Long executionId = schedulerService.recordJobStart(JOB_NAME, JOB_GROUP,
+            context.getTrigger().getKey().getName(), context.getTrigger().getKey().getGroup(), LocalDateTime.now());
+        RunMetrics metrics = RunMetrics.start();
+        try {
+            Map<Long, BookingNamePair> bookings = new LinkedHashMap<>();
+            for (ReleaseEvent release : releases) {
+                bookings.putIfAbsent(release.bookId(), new BookingNamePair(release.bookId(), release.nameId()));
+            }
+
+            int shippedCount = chargesService.shipReleasedBookings(List.copyOf(bookings.values()), sysConfigService.pinConfig(), fileName);
+
+            // The watermark follows jrelease.releasetime, not the wall clock; a late release never moves it back
+            LocalDateTime lastReleaseTime = releases.get(releases.size() - 1).releaseTime();
+            LocalDateTime watermark = lastReleaseTime.isAfter(since) ? lastReleaseTime : since;
+            schedulerService.recordJobCompletion(executionId, LocalDateTime.now(), shippedCount, since, watermark,
+                SchedulerService.DEFAULT_PARTITION, metrics);
+
+            releases.forEach(release -> shipped.add(shippedKey(release)));
+            data.put(SHIPPED, formatShipped(shipped, watermark.minusSeconds(overlapSeconds)));
+
+        } catch (Exception ex) {
+            log.error("❌ Release fast lane failed", ex);
+            schedulerService.recordJobFailure(executionId, LocalDateTime.now(), ex.getMessage(), metrics);
+            throw new JobExecutionException(ex, false);
+        } finally {
+            RunMetrics.clear();
+        }
+    }
+
+    private static String shippedKey(ReleaseEvent release) {
+        return release.bookId() + "@" + release.releaseTime();
+    }
+
+    private static Set<String> parseShipped(String value) {
+        Set<String> shipped = new LinkedHashSet<>();
+        for (String key : value.split(",")) {
+            if (!key.isBlank()) {
+                shipped.add(key);
+            }
+        }
+        return shipped;
+    }
+
+    // Releases before the next overlap window are never read again
+    private static String formatShipped(Set<String> shipped, LocalDateTime windowStart) {
+        return shipped.stream()
+            .filter(key -> !LocalDateTime.parse(key.substring(key.indexOf('@') + 1)).isBefore(windowStart))
+            .collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,185 @@
+package vine.vine.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+import vine.vine.domain.BookingPartitionFragmentEntity;
+import vine.vine.domain.BookingPartitionLeaseEntity;
+import vine.vine.domain.BookingPartitionLeaseEntity.LeaseStatus;
+import vine.vine.domain.dto.response.BookingRecord;
+import vine.vine.repository.BookingPartitionFragmentRepository;
+import vine.vine.repository.BookingPartitionLeaseRepository;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Lease table for booking runs shared by several nodes. The coordinator creates one lease per roster partition;
+ * any node may claim a lease, must heartbeat it while extracting, and completes it together with the partition's
+ * fragments in one transaction. A lease whose owner stops heartbeating expires and is claimed again elsewhere.
+ * Lease expiry is always database time, never the clock of the node.
+ */
+@Service
+@Slf4j
+public class BookingLeaseService {
+
+    private final BookingPartitionLeaseRepository leaseRepository;
+    private final BookingPartitionFragmentRepository fragmentRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // pid@host, unique per running instance
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName();
+
+    @Value("${vine.lease.duration-seconds:60}")
+    private long leaseSeconds;
+
+    @Value("${vine.lease.max-attempts:3}")
+    private int maxAttempts;
+
+    // Leases and fragments of runs older than this are swept; must exceed vine.scheduler.partition-timeout-minutes
+    @Value("${vine.lease.retention-hours:24}")
+    private long retentionHours;
+
+    public BookingLeaseService(BookingPartitionLeaseRepository leaseRepository,
+                               BookingPartitionFragmentRepository fragmentRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.leaseRepository = leaseRepository;
+        this.fragmentRepository = fragmentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public long getLeaseSeconds() {
+        return leaseSeconds;
+    }
+
+    public void createLeases(String runId, int partitionCount, LocalDateTime runProcessFromTime, String configSnapshot) {
+        List<BookingPartitionLeaseEntity> leases = new ArrayList<>();
+        for (int i = 0; i < partitionCount; i++) {
+            BookingPartitionLeaseEntity lease = new BookingPartitionLeaseEntity();
+            lease.setRunId(runId);
+            lease.setPartitionIndex(i);
+            lease.setPartitionCount(partitionCount);
+            lease.setStatus(LeaseStatus.PENDING);
+            lease.setRunProcessFromTime(runProcessFromTime);
+            lease.setConfigSnapshot(configSnapshot);
+            leases.add(lease);
+        }
+        leaseRepository.saveAll(leases);
+        log.info("📋 Created {} partition leases for run {}", partitionCount, runId);
+    }
+
+    /**
+     * Claims the oldest free lease for this node, if any
+     */
+    public Optional<BookingPartitionLeaseEntity> claimNext() {
+        return transactionTemplate.execute(status -> {
+            for (Long id : leaseRepository.findClaimableIds(PageRequest.of(0, 5))) {
+                if (leaseRepository.claim(id, nodeId, leaseSeconds) == 1) {
+                    return leaseRepository.findById(id);
+                }
+            }
+            return Optional.empty();
+        });
+    }
+
+    /**
+     * Extends the lease; false when this node no longer owns it
+     */
+    public boolean heartbeat(Long leaseId) {
+        Integer updated = transactionTemplate.execute(status ->
+                leaseRepository.heartbeat(leaseId, nodeId, leaseSeconds));
+        return updated != null && updated == 1;
+    }
+
+    /**
+     * Marks the lease completed and stores its fragments atomically. Returns false, storing nothing, when the
+     * lease expired and was taken over by another node in the meantime.
+     */
+    public boolean completeLease(BookingPartitionLeaseEntity lease, LocalDateTime processFromTime, Long executionId,
+                                 List<BookingRecord> records) {
+        Boolean completed = transactionTemplate.execute(status -> {
+            if (leaseRepository.complete(lease.getId(), nodeId, processFromTime, executionId, records.size()) != 1) {
+                return false;
+            }
+            fragmentRepository.saveAll(records.stream()
+                    .map(record -> new BookingPartitionFragmentEntity(null, lease.getRunId(), lease.getId(),
+                            record.bookId(), record.lines()))
+                    .collect(Collectors.toList()));
+            return true;
+        });
+        return Boolean.TRUE.equals(completed);
+    }
+
+    /**
+     * Gives a failed lease back for another attempt, or fails it for good after the maximum attempts
+     */
+    public void releaseLease(BookingPartitionLeaseEntity lease, String errorMessage) {
+        LeaseStatus next = lease.getAttempts() >= maxAttempts ? LeaseStatus.FAILED : LeaseStatus.PENDING;
+        transactionTemplate.executeWithoutResult(status ->
+                leaseRepository.release(lease.getId(), nodeId, next, errorMessage));
+        log.warn("⚠️ Lease {} ({}/{}) of run {} released as {} after attempt {}", lease.getId(),
+                lease.getPartitionIndex(), lease.getPartitionCount(), lease.getRunId(), next, lease.getAttempts());
+    }
+
+    public long countLeases(String runId, LeaseStatus status) {
+        return leaseRepository.countByRunIdAndStatus(runId, status);
+    }
+
+    public List<BookingPartitionLeaseEntity> getLeases(String runId) {
+        return leaseRepository.findByRunIdOrderByPartitionIndex(runId);
+    }
+
+    public List<BookingRecord> collectRecords(String runId) {
+        return fragmentRepository.findByRunIdOrderByBookId(runId).stream()
+                .map(fragment -> new BookingRecord(fragment.getBookId(), fragment.getLines()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Drops the run's leases and fragments once its file has been uploaded
+     */
+    public void finishRun(String runId) {
+        deleteRun(runId);
+    }
+
+    /**
+     * Drops every lease and fragment of a failed run, so no node picks it up any more. A worker still extracting
+     * one of its partitions can no longer complete the lease and stores nothing.
+     */
+    public void abandonRun(String runId, String errorMessage) {
+        deleteRun(runId);
+        log.warn("🧹 Abandoned run {} and dropped its leases and fragments: {}", runId, errorMessage);
+    }
+
+    /**
+     * Drops runs created more than the retention period ago, left behind by a coordinator that crashed before it
+     * could finish or abandon them
+     */
+    public int sweepStaleRuns() {
+        List<String> staleRuns = leaseRepository.findRunIdsCreatedBefore(LocalDateTime.now().minusHours(retentionHours));
+        staleRuns.forEach(this::deleteRun);
+        if (!staleRuns.isEmpty()) {
+            log.warn("🧹 Dropped {} stale partitioned run(s): {}", staleRuns.size(), staleRuns);
+        }
+        return staleRuns.size();
+    }
+
+    private void deleteRun(String runId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            fragmentRepository.deleteByRunId(runId);
+            leaseRepository.deleteByRunId(runId);
+        });
+    }
+}
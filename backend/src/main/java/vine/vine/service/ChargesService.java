@@ -2,9 +2,13 @@ package vine.vine.service;
 
 import java.time.LocalDateTime;
 
+import vine.vine.domain.VineSystemConfig;
+
 public interface ChargesService {
   //  Page<ChargesResponse> getAllCharges(Pageable pageable);
    // String getPrisonerCharges();
 //    String getPrisonerChargesByBookingId(Long bookId);
     Long processBookings(LocalDateTime lastRunTime);
+
+    Long processBookings(LocalDateTime lastRunTime, VineSystemConfig config);
 }
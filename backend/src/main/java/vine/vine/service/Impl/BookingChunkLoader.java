@@ -0,0 +1,205 @@
+package vine.vine.service.Impl;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.jdbc.core.ColumnMapRowMapper;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import vine.vine.domain.Armain;
+import vine.vine.domain.Jrelease;
+import vine.vine.domain.SysImageEntity;
+import vine.vine.domain.dto.response.BookingNamePair;
+import vine.vine.repository.projection.AliasNameView;
+import vine.vine.repository.projection.BookingView;
+import vine.vine.repository.projection.ChargeLineView;
+import vine.vine.repository.projection.FacilityView;
+import vine.vine.repository.projection.PrisonerView;
+import vine.vine.service.RunMetrics;
+import vine.vine.service.RunMetrics.Stage;
+
+/**
+ * Loads the {@link BookingLookups} of one extraction chunk: eight id-set queries per chunk, however many bookings
+ * it has, instead of ten lookups per booking. Column aliases match the projection properties, so rows are served
+ * through the same projection interfaces the repositories use.
+ */
+@Component
+public class BookingChunkLoader {
+
+    private static final String PRISONERS_SQL = """
+    SELECT name_id AS nameId, state_id AS stateId, firstname, middlename, lastname, dob, race, sex, height, weight,
+           ssn, streetnbr AS streetNbr, street, city, state, zip, birthplace, dr_lic AS drLic, dl_state AS dlState,
+           marital, occupation, eye, hair, employer, hphone, wphone, mphone
+    FROM nmmain
+    WHERE name_id IN (SELECT ids.id FROM {ids})
+""";
+
+    // alias_id is a character column holding the name id
+    private static final String ALIASES_SQL = """
+    SELECT alias_id AS aliasId, firstname, lastname
+    FROM nmmain
+    WHERE nametype = 'AKA'
+        AND alias_id IN (SELECT CAST(ids.id AS VARCHAR(20)) FROM {ids})
+    ORDER BY name_id
+""";
+
+    private static final String ARRESTS_SQL = """
+    SELECT armainid, book_id, case_id, date_arr
+    FROM armain
+    WHERE book_id IN (SELECT ids.id FROM {ids})
+    ORDER BY book_id, armainid
+""";
+
+    private static final String BOOKINGS_SQL = """
+    SELECT book_id AS bookId, agency, faci_id AS faciId, bookdate AS bookDate
+    FROM jmmain
+    WHERE book_id IN (SELECT ids.id FROM {ids})
+""";
+
+    private static final String FACILITIES_SQL = """
+    SELECT bookId, facility, section, unit, bed
+    FROM (
+        SELECT book_id AS bookId, facility, section, unit, bed,
+               ROW_NUMBER() OVER (PARTITION BY book_id ORDER BY eventdate DESC) AS rn
+        FROM jfachist
+        WHERE book_id IN (SELECT ids.id FROM {ids})
+    ) latest
+    WHERE rn = 1
+""";
+
+    private static final String RELEASES_SQL = """
+    SELECT book_id, releasetime, relsreason
+    FROM (
+        SELECT book_id, releasetime, relsreason,
+               ROW_NUMBER() OVER (PARTITION BY book_id ORDER BY releasetime DESC) AS rn
+        FROM jrelease
+        WHERE book_id IN (SELECT ids.id FROM {ids})
+    ) latest
+    WHERE rn = 1
+""";
+
+    private static final String CHARGES_SQL = """
+    SELECT book_id AS bookId, arr_chrg, fel_misd, chrg_cnt, chrg_seq, bondamt, bondtype, armainid, chrgdesc
+    FROM archrg
+    WHERE book_id IN (SELECT ids.id FROM {ids})
+    ORDER BY book_id, archrgid
+""";
+
+    private static final String IMAGES_SQL = """
+    SELECT sys_imgid, sysid, syskey, ext1, ext2, addtime
+    FROM sys_img
+    WHERE syskey = 'N'
+        AND sysid IN (SELECT ids.id FROM {ids})
+    ORDER BY sysid, addtime DESC
+""";
+
+    private static final RowMapper<Map<String, Object>> COLUMNS = new ColumnMapRowMapper() {
+        @Override
+        protected Object getColumnValue(ResultSet rs, int index) throws SQLException {
+            Object value = super.getColumnValue(rs, index);
+            return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : value;
+        }
+    };
+
+    private final IdSetQuery idSetQuery;
+    private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+
+    public BookingChunkLoader(IdSetQuery idSetQuery) {
+        this.idSetQuery = idSetQuery;
+    }
+
+    public BookingLookups load(List<BookingNamePair> chunk) {
+        RunMetrics metrics = RunMetrics.current();
+        Set<Long> bookIds = chunk.stream().map(BookingNamePair::bookId).collect(Collectors.toSet());
+        Set<Long> nameIds = chunk.stream().map(BookingNamePair::nameId).collect(Collectors.toSet());
+
+        Map<Long, PrisonerView> prisoners = new HashMap<>();
+        Map<String, AliasNameView> aliases = new HashMap<>();
+        Map<Long, Armain> arrests = new HashMap<>();
+        Map<Long, BookingView> bookings = new HashMap<>();
+        Map<Long, FacilityView> facilities = new HashMap<>();
+        Map<Long, Jrelease> releases = new HashMap<>();
+        Map<Long, List<ChargeLineView>> charges = new HashMap<>();
+        Map<Long, List<SysImageEntity>> images = new HashMap<>();
+        long rows = 0;
+
+        try (RunMetrics.StageTimer ignored = metrics.stage(Stage.LOOKUP)) {
+            for (Map<String, Object> row : idSetQuery.query(PRISONERS_SQL, nameIds, COLUMNS)) {
+                prisoners.put(toLong(row.get("nameId")), projectionFactory.createProjection(PrisonerView.class, row));
+                rows++;
+            }
+            for (Map<String, Object> row : idSetQuery.query(ALIASES_SQL, nameIds, COLUMNS)) {
+                aliases.putIfAbsent(String.valueOf(row.get("aliasId")).trim(),
+                        projectionFactory.createProjection(AliasNameView.class, row));
+                rows++;
+            }
+            for (Map<String, Object> row : idSetQuery.query(ARRESTS_SQL, bookIds, COLUMNS)) {
+                Armain arrest = new Armain();
+                arrest.setArmainid(toLong(row.get("armainid")));
+                arrest.setBookId(toLong(row.get("book_id")));
+                arrest.setCaseId(row.get("case_id") != null ? row.get("case_id").toString() : null);
+                arrest.setDateArrest((LocalDateTime) row.get("date_arr"));
+                arrests.putIfAbsent(arrest.getBookId(), arrest);
+                rows++;
+            }
+            for (Map<String, Object> row : idSetQuery.query(BOOKINGS_SQL, bookIds, COLUMNS)) {
+                bookings.put(toLong(row.get("bookId")), projectionFactory.createProjection(BookingView.class, row));
+                rows++;
+            }
+            for (Map<String, Object> row : idSetQuery.query(FACILITIES_SQL, bookIds, COLUMNS)) {
+                facilities.put(toLong(row.get("bookId")), projectionFactory.createProjection(FacilityView.class, row));
+                rows++;
+            }
+            for (Map<String, Object> row : idSetQuery.query(RELEASES_SQL, bookIds, COLUMNS)) {
+                Jrelease release = new Jrelease();
+                release.setBookId(toLong(row.get("book_id")));
+                release.setReleasetime((LocalDateTime) row.get("releasetime"));
+                release.setRelsreason((String) row.get("relsreason"));
+                releases.put(release.getBookId(), release);
+                rows++;
+            }
+            for (Map<String, Object> row : idSetQuery.query(CHARGES_SQL, bookIds, COLUMNS)) {
+                charges.computeIfAbsent(toLong(row.get("bookId")), id -> new ArrayList<>())
+                        .add(projectionFactory.createProjection(ChargeLineView.class, row));
+                rows++;
+            }
+            metrics.addRows(Stage.LOOKUP, rows);
+        }
+
+        try (RunMetrics.StageTimer ignored = metrics.stage(Stage.MUGSHOT)) {
+            List<Map<String, Object>> imageRows = idSetQuery.query(IMAGES_SQL, nameIds, COLUMNS);
+            for (Map<String, Object> row : imageRows) {
+                SysImageEntity image = new SysImageEntity();
+                image.setSysImgId(toLong(row.get("sys_imgid")));
+                image.setSystemId(toLong(row.get("sysid")));
+                image.setSystemKey((String) row.get("syskey"));
+                image.setExt1(toInteger(row.get("ext1")));
+                image.setExt2(toInteger(row.get("ext2")));
+                image.setAddTime((LocalDateTime) row.get("addtime"));
+                images.computeIfAbsent(image.getSystemId(), id -> new ArrayList<>()).add(image);
+            }
+            metrics.addRows(Stage.MUGSHOT, imageRows.size());
+        }
+
+        return new BookingLookups(prisoners, aliases, arrests, bookings, facilities, releases, charges, images);
+    }
+
+    private static Long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : null;
+    }
+
+    private static Integer toInteger(Object value) {
+        return value != null ? ((Number) value).intValue() : null;
+    }
+}
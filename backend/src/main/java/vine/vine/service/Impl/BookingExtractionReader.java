@@ -0,0 +1,52 @@
+package vine.vine.service.Impl;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import vine.vine.config.WorkloadRoutingDataSource;
+
+/**
+ * Runs the extraction lookups chunk by chunk, each chunk in one read-only transaction. The chunk's set-based JDBC
+ * lookups ({@link BookingChunkLoader} through {@link IdSetQuery}) share that transaction's connection, which is
+ * marked as an extraction read so it may be served by the replica. Only one chunk's lookup rows are held at a time.
+ * <p>
+ * With vine.extraction.isolation=snapshot the chunk's connection runs under SQL Server SNAPSHOT isolation: all
+ * lookups of the chunk see the same committed state of the JMS tables and take no shared locks.
+ */
+@Service
+public class BookingExtractionReader {
+
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExtractionLimiter limiter;
+
+    @Value("${vine.extraction.chunk-size:200}")
+    private int chunkSize;
+
+    public BookingExtractionReader(PlatformTransactionManager transactionManager, ExtractionLimiter limiter) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.limiter = limiter;
+    }
+
+    public <T> void forEachChunk(List<T> items, Consumer<List<T>> chunkWork) {
+        int size = Math.max(1, chunkSize);
+        for (int from = 0; from < items.size(); from += size) {
+            List<T> chunk = items.subList(from, Math.min(from + size, items.size()));
+            // Outside the transaction, so a paused run holds no connection
+            limiter.pace();
+            WorkloadRoutingDataSource.markExtractionRead();
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> chunkWork.accept(chunk));
+            } finally {
+                WorkloadRoutingDataSource.clearExtractionRead();
+            }
+        }
+    }
+}
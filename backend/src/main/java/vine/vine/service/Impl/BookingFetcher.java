@@ -3,20 +3,38 @@ package vine.vine.service.Impl;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import lombok.RequiredArgsConstructor;
+import vine.vine.config.WorkloadRoutingDataSource;
 import vine.vine.domain.dto.response.BookingNamePair;
+import vine.vine.domain.dto.response.ChangeProbe;
+import vine.vine.domain.dto.response.ReleaseEvent;
 
+// Read-only and marked as extraction reads, so the roster, probe and release queries can be served by the read
+// replica; all of them run inside the extraction limiter
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class BookingFetcher {
 
     private final JdbcTemplate jdbcTemplate;
+    private final ExtractionLimiter limiter;
 
     public List<BookingNamePair> fetchBookingAndNameIds(LocalDateTime lastRunTime) {
+        return fetchBookingAndNameIds(lastRunTime, 1, 0);
+    }
+
+    /**
+     * Bookings of one roster partition: those with {@code book_id % partitionCount = partitionIndex}. A single
+     * partition reads the whole roster without the modulo predicate, so the book_id index stays usable.
+     */
+    public List<BookingNamePair> fetchBookingAndNameIds(LocalDateTime lastRunTime, int partitionCount, int partitionIndex) {
         String sql = """
     SELECT DISTINCT 
         jmmain.book_id AS book_id, 
@@ -26,19 +44,102 @@ public class BookingFetcher {
         LEFT OUTER JOIN jrelease 
             ON jmmain.book_id = jrelease.book_id
     WHERE 
-        jmmain.bkstatus = 'A'
-        OR jrelease.releasetime >= ?
+        (jmmain.bkstatus = 'A'
+        OR jrelease.releasetime >= ?)
+        %s
     ORDER BY 
         jmmain.book_id
-""";
+""".formatted(partitionCount > 1 ? "AND jmmain.book_id % ? = ?" : "");
 
-        return jdbcTemplate.query(
+        return extractionRead(() -> jdbcTemplate.query(
                 sql,
-                ps -> ps.setTimestamp(1, Timestamp.valueOf(lastRunTime)),
+                ps -> {
+                    ps.setTimestamp(1, Timestamp.valueOf(lastRunTime));
+                    if (partitionCount > 1) {
+                        ps.setInt(2, partitionCount);
+                        ps.setInt(3, partitionIndex);
+                    }
+                },
                 (rs, rowNum) -> new BookingNamePair(
                         rs.getLong("book_id"),
                         rs.getLong("name_id")
                 )
-        );
+        ));
+    }
+
+    /**
+     * Aggregates over the booking, release and facility history tables in one round trip
+     */
+    public ChangeProbe fetchChangeProbe() {
+        String sql = """
+    SELECT
+        (SELECT MAX(addtime) FROM jmmain) AS max_addtime,
+        (SELECT COUNT(*) FROM jmmain WHERE bkstatus = 'A') AS active_bookings,
+        (SELECT MAX(releasetime) FROM jrelease) AS max_releasetime,
+        (SELECT COUNT(*) FROM jrelease) AS releases,
+        (SELECT MAX(eventdate) FROM jfachist) AS max_eventdate,
+        (SELECT COUNT(*) FROM jfachist) AS facility_events
+""";
+
+        return extractionRead(() -> jdbcTemplate.queryForObject(sql, (rs, rowNum) -> new ChangeProbe(
+                toLocalDateTime(rs.getTimestamp("max_addtime")),
+                rs.getLong("active_bookings"),
+                toLocalDateTime(rs.getTimestamp("max_releasetime")),
+                rs.getLong("releases"),
+                toLocalDateTime(rs.getTimestamp("max_eventdate")),
+                rs.getLong("facility_events")
+        )));
+    }
+
+    /**
+     * Latest release time in jrelease, empty while it has no rows
+     */
+    public Optional<LocalDateTime> fetchLatestReleaseTime() {
+        return extractionRead(() -> Optional.ofNullable(toLocalDateTime(
+                jdbcTemplate.queryForObject("SELECT MAX(releasetime) FROM jrelease", Timestamp.class))));
+    }
+
+    /**
+     * Releases recorded at or after the given release time, oldest first
+     */
+    public List<ReleaseEvent> fetchReleasesSince(LocalDateTime since) {
+        String sql = """
+    SELECT 
+        jrelease.book_id AS book_id, 
+        jmmain.name_id AS name_id,
+        jrelease.releasetime AS releasetime
+    FROM 
+        jrelease
+        INNER JOIN jmmain 
+            ON jmmain.book_id = jrelease.book_id
+    WHERE 
+        jrelease.releasetime >= ?
+    ORDER BY 
+        jrelease.releasetime, jrelease.book_id
+""";
+
+        return extractionRead(() -> jdbcTemplate.query(
+                sql,
+                ps -> ps.setTimestamp(1, Timestamp.valueOf(since)),
+                (rs, rowNum) -> new ReleaseEvent(
+                        rs.getLong("book_id"),
+                        rs.getLong("name_id"),
+                        toLocalDateTime(rs.getTimestamp("releasetime"))
+                )
+        ));
+    }
+
+    // The connection is taken lazily on the first statement, so marking inside the transaction still routes it
+    private <T> T extractionRead(Supplier<T> query) {
+        WorkloadRoutingDataSource.markExtractionRead();
+        try {
+            return limiter.execute(query);
+        } finally {
+            WorkloadRoutingDataSource.clearExtractionRead();
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,78 @@
+package vine.vine.service.Impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import vine.vine.domain.Armain;
+import vine.vine.domain.Jrelease;
+import vine.vine.domain.SysImageEntity;
+import vine.vine.repository.projection.AliasNameView;
+import vine.vine.repository.projection.BookingView;
+import vine.vine.repository.projection.ChargeLineView;
+import vine.vine.repository.projection.FacilityView;
+import vine.vine.repository.projection.PrisonerView;
+
+/**
+ * The rows the prisoner, charge and mugshot records of one extraction chunk are built from, loaded by
+ * {@link BookingChunkLoader} with one query per table for the whole chunk
+ */
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public class BookingLookups {
+
+    // by name_id
+    private final Map<Long, PrisonerView> prisoners;
+    // first AKA name by alias_id
+    private final Map<String, AliasNameView> aliases;
+    // first arrest (lowest armainid) by book_id
+    private final Map<Long, Armain> arrests;
+    private final Map<Long, BookingView> bookings;
+    // latest housing event by book_id
+    private final Map<Long, FacilityView> facilities;
+    // latest release by book_id
+    private final Map<Long, Jrelease> releases;
+    // all charges by book_id
+    private final Map<Long, List<ChargeLineView>> charges;
+    // by name_id, newest first
+    private final Map<Long, List<SysImageEntity>> images;
+
+    public Optional<PrisonerView> findPrisoner(Long nameId) {
+        return Optional.ofNullable(prisoners.get(nameId));
+    }
+
+    public Optional<AliasNameView> findAlias(Long nameId) {
+        return Optional.ofNullable(aliases.get(String.valueOf(nameId)));
+    }
+
+    public Optional<Armain> findFirstArrest(Long bookId) {
+        return Optional.ofNullable(arrests.get(bookId));
+    }
+
+    public Optional<BookingView> findBooking(Long bookId) {
+        return Optional.ofNullable(bookings.get(bookId));
+    }
+
+    public Optional<FacilityView> findFacility(Long bookId) {
+        return Optional.ofNullable(facilities.get(bookId));
+    }
+
+    public Optional<Jrelease> findRelease(Long bookId) {
+        return Optional.ofNullable(releases.get(bookId));
+    }
+
+    /**
+     * Charges of one arrest of the booking
+     */
+    public List<ChargeLineView> getChargeLines(Long bookId, Long armainid) {
+        return charges.getOrDefault(bookId, List.of()).stream()
+                .filter(charge -> Objects.equals(charge.getArmainid(), armainid))
+                .toList();
+    }
+
+    public List<SysImageEntity> getImages(Long nameId) {
+        return images.getOrDefault(nameId, List.of());
+    }
+}
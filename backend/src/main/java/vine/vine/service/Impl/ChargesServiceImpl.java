@@ -8,8 +8,11 @@ import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,42 +21,34 @@ import org.springframework.stereotype.Service;
 import lombok.RequiredArgsConstructor;
 import vine.vine.config.ServiceLog;
 import vine.vine.domain.Armain;
-import vine.vine.domain.Charges;
-import vine.vine.domain.Jfachist;
-import vine.vine.domain.Jmmain;
 import vine.vine.domain.Jrelease;
-import vine.vine.domain.Nmmain;
 import vine.vine.domain.SysImageEntity;
 import vine.vine.domain.Systab1;
+import vine.vine.domain.VineSystemConfig;
 import vine.vine.domain.dto.response.BookingNamePair;
-import vine.vine.repository.ArmainRepository;
-import vine.vine.repository.ChargesRepository;
-import vine.vine.repository.JfachistRepository;
-import vine.vine.repository.JmmainRepository;
-import vine.vine.repository.JreleaseRepository;
-import vine.vine.repository.NmmainRepository;
-import vine.vine.repository.SysImageRepository;
-import vine.vine.repository.Systab1Repository;
+import vine.vine.domain.dto.response.BookingRecord;
+import vine.vine.repository.projection.AliasNameView;
+import vine.vine.repository.projection.BookingView;
+import vine.vine.repository.projection.ChargeLineView;
+import vine.vine.repository.projection.FacilityView;
+import vine.vine.repository.projection.PrisonerView;
 import vine.vine.service.ChargesService;
+import vine.vine.service.RunMetrics;
+import vine.vine.service.RunMetrics.Stage;
 
 @Service
 @RequiredArgsConstructor
 public class ChargesServiceImpl implements ChargesService {
 
-    private final ChargesRepository chargesRepository;
-    private final JmmainRepository jmmainRepository;
-    private final NmmainRepository nmmainRepository;
     private final BookingFetcher bookingFetcher;
-    private final JfachistRepository jfachistRepository;
-    private final Systab1Repository systab1Repository;
-    private final ArmainRepository armainRepository;
+    private final ReferenceDataCache referenceDataCache;
 
     private static final Logger log = LoggerFactory.getLogger(ChargesServiceImpl.class);
-    private final JreleaseRepository jreleaseRepository;
     private final SysConfigService sysConfigService;
-    private final SysImageRepository sysImageRepository;
     private final ServiceLog serviceLog;
     private final TransferService transferService;
+    private final BookingExtractionReader extractionReader;
+    private final BookingChunkLoader chunkLoader;
 
 
     // @Override
@@ -67,77 +62,186 @@ public class ChargesServiceImpl implements ChargesService {
         return String.format("%1$-" + width + "s", value);
     }
 
-     @Override
+    @Override
     public Long processBookings(LocalDateTime lastRunTime) {
-        log.info("🚀 Starting processBookings with lastRunTime: {}", lastRunTime);
+        return processBookings(lastRunTime, sysConfigService.pinConfig());
+    }
+
+    /**
+     * Runs the whole extraction against one configuration snapshot, so headers and paths cannot change mid-file
+     */
+    @Override
+    public Long processBookings(LocalDateTime lastRunTime, VineSystemConfig config) {
+        log.info("🚀 Starting processBookings with lastRunTime: {} (config version {})", lastRunTime, config.getVersion());
         
-        clearNewMugshotDir();
+        clearNewMugshotDir(config);
         
         // ✅ Add debugging here
-        List<BookingNamePair> bookingPairs = bookingFetcher.fetchBookingAndNameIds(lastRunTime);
+        List<BookingNamePair> bookingPairs;
+        try (RunMetrics.StageTimer ignored = RunMetrics.current().stage(Stage.FETCH)) {
+            bookingPairs = bookingFetcher.fetchBookingAndNameIds(lastRunTime);
+        }
+        recordFetch(bookingPairs);
         log.info("📊 BookingFetcher returned {} pairs", bookingPairs.size());
 
-        StringBuilder sb = new StringBuilder();
-        long recordsProcessed = 0;
+        List<BookingRecord> records = buildBookingRecords(bookingPairs, config);
+        log.info("✅ Processed {} booking records out of {} pairs", records.size(), bookingPairs.size());
+
+        writeAndTransfer(records, config);
+        return (long) records.size();
+    }
+
+    /**
+     * Extracts one partition of the roster ({@code book_id % partitionCount = partitionIndex}). The caller merges
+     * the fragments and calls {@link #writeAndTransfer}; the mugshot directory must already be cleared.
+     */
+    public List<BookingRecord> extractPartition(LocalDateTime lastRunTime, VineSystemConfig config,
+                                                int partitionCount, int partitionIndex) {
+        List<BookingNamePair> bookingPairs;
+        try (RunMetrics.StageTimer ignored = RunMetrics.current().stage(Stage.FETCH)) {
+            bookingPairs = bookingFetcher.fetchBookingAndNameIds(lastRunTime, partitionCount, partitionIndex);
+        }
+        recordFetch(bookingPairs);
+        log.info("📊 Partition {}/{} returned {} pairs", partitionIndex, partitionCount, bookingPairs.size());
+        return buildBookingRecords(bookingPairs, config);
+    }
+
+    // Statements are counted by RunQueryCounter; the roster size is the run's booking count
+    private void recordFetch(List<BookingNamePair> bookingPairs) {
+        RunMetrics.current().addRows(Stage.FETCH, bookingPairs.size());
+    }
 
-        for (BookingNamePair pair : bookingPairs) {
-            Long bookingId = pair.bookId();
-            Long nameId = pair.nameId();
+    private List<BookingRecord> buildBookingRecords(List<BookingNamePair> bookingPairs, VineSystemConfig config) {
+        // One query for every agency message; the per-booking AGCY lookups are then served from memory
+        try (RunMetrics.StageTimer ignored = RunMetrics.current().stage(Stage.LOOKUP)) {
+            referenceDataCache.preload(ReferenceDataCache.AGENCY_CODE_KEY);
+        }
+        List<BookingRecord> records = new ArrayList<>();
+        extractionReader.forEachChunk(bookingPairs, chunk -> {
+            BookingLookups lookups = chunkLoader.load(chunk);
+            for (BookingNamePair pair : chunk) {
+                buildBookingRecord(pair, lookups, config).ifPresent(records::add);
+            }
+        });
+        return records;
+    }
+
+    private Optional<BookingRecord> buildBookingRecord(BookingNamePair pair, BookingLookups lookups, VineSystemConfig config) {
+        RunMetrics metrics = RunMetrics.current();
+        Long bookingId = pair.bookId();
+        Long nameId = pair.nameId();
+        
+        log.debug("🔄 Processing booking pair: bookId={}, nameId={}", bookingId, nameId);
+        
+        try {
+            String prisonerQuery;
+            String prisonerCharges;
+            String mugShotString;
+            try (RunMetrics.StageTimer ignored = metrics.stage(Stage.LOOKUP)) {
+                prisonerQuery = prisonerQuery(nameId, bookingId, lookups, config);
+                prisonerCharges = getPrisonerCharges(nameId, bookingId, lookups, config);
+            }
+            try (RunMetrics.StageTimer ignored = metrics.stage(Stage.MUGSHOT)) {
+                mugShotString = getMugShotString(nameId, bookingId, lookups, config);
+            }
             
-            log.debug("🔄 Processing booking pair: bookId={}, nameId={}", bookingId, nameId);
+            // ✅ Check if we actually got data
+            boolean hasData = !prisonerQuery.isEmpty() || !prisonerCharges.isEmpty() || !mugShotString.isEmpty();
             
-            try {
-                String prisonerQuery = prisonerQuery(nameId, bookingId);
-                String prisonerCharges = getPrisonerCharges(nameId, bookingId);
-                String mugShotString = getMugShotString(nameId, bookingId);
-                
-                // ✅ Check if we actually got data
-                boolean hasData = !prisonerQuery.isEmpty() || !prisonerCharges.isEmpty() || !mugShotString.isEmpty();
-                
-                if (hasData) {
-                    sb.append(prisonerQuery);
-                    sb.append(prisonerCharges);
-                    sb.append(mugShotString);
-                    recordsProcessed++;
-                    
-                    log.debug("✅ Successfully processed booking {}: prisoner={} chars, charges={} chars, mugshot={} chars", 
-                        bookingId, prisonerQuery.length(), prisonerCharges.length(), mugShotString.length());
-                } else {
-                    log.warn("⚠️ No data generated for booking {}, nameId {}", bookingId, nameId);
-                }
-                
-            } catch (Exception e) {
-                log.error("❌ Error processing booking pair bookId={}, nameId={}", bookingId, nameId, e);
+            if (hasData) {
+                log.debug("✅ Successfully processed booking {}: prisoner={} chars, charges={} chars, mugshot={} chars", 
+                    bookingId, prisonerQuery.length(), prisonerCharges.length(), mugShotString.length());
+                return Optional.of(new BookingRecord(bookingId, prisonerQuery + prisonerCharges + mugShotString));
             }
+            log.warn("⚠️ No data generated for booking {}, nameId {}", bookingId, nameId);
+            
+        } catch (Exception e) {
+            log.error("❌ Error processing booking pair bookId={}, nameId={}", bookingId, nameId, e);
         }
+        return Optional.empty();
+    }
+
+    /**
+     * Writes the records in book id order to the DAT file and uploads it with the mugshots; a failed upload throws,
+     * so the run is recorded as failed and its watermark is not advanced
+     */
+    public void writeAndTransfer(List<BookingRecord> records, VineSystemConfig config) {
+        StringBuilder sb = new StringBuilder();
+        records.stream()
+                .sorted(Comparator.comparing(BookingRecord::bookId))
+                .forEach(record -> sb.append(record.lines()));
 
         // 🔥 Build full path using VineNewVineFilePath + VineInterfile
-        String baseDir = sysConfigService.getConfig().getVineNewVineFilePath();
-        String fileName = sysConfigService.getConfig().getVineInterFile();
+        String baseDir = config.getVineNewVineFilePath();
+        String fileName = config.getVineInterFile();
         String fullPath = Paths.get(baseDir, fileName).toString();
 
         log.info("📁 Writing to file: {}", fullPath);
         log.info("📝 File content length: {} characters", sb.length());
         
-        writeToFile(sb.toString(), fullPath);
+        try (RunMetrics.StageTimer ignored = RunMetrics.current().stage(Stage.WRITE)) {
+            writeToFile(sb.toString(), fullPath);
+        }
         
-        log.info("✅ Processed {} booking records out of {} pairs", recordsProcessed, bookingPairs.size());
-        transferService.ftpDataAndMugshotFiles(); 
-        return recordsProcessed;
+        boolean uploaded;
+        try (RunMetrics.StageTimer ignored = RunMetrics.current().stage(Stage.UPLOAD)) {
+            uploaded = transferService.ftpDataAndMugshotFiles(config);
+        }
+        if (!uploaded) {
+            throw new RuntimeException("DAT/mugshot upload failed: " + fullPath);
+        }
     }
 
-    public String prisonerQuery(Long nameId, Long bookId){
+    /**
+     * Renders only the prisoner and charge records of the given bookings into a separate DAT file and uploads it
+     * on its own, without touching the full-roster file or the mugshot directory.
+     */
+    public int shipReleasedBookings(List<BookingNamePair> bookingPairs, VineSystemConfig config, String fileName) {
+        StringBuilder sb = new StringBuilder();
+        AtomicInteger recordsProcessed = new AtomicInteger();
+        RunMetrics metrics = RunMetrics.current();
+        try (RunMetrics.StageTimer ignored = metrics.stage(Stage.LOOKUP)) {
+            extractionReader.forEachChunk(bookingPairs, chunk -> {
+                BookingLookups lookups = chunkLoader.load(chunk);
+                for (BookingNamePair pair : chunk) {
+                    String prisonerQuery = prisonerQuery(pair.nameId(), pair.bookId(), lookups, config);
+                    if (prisonerQuery.isEmpty()) {
+                        continue;
+                    }
+                    sb.append(prisonerQuery);
+                    sb.append(getPrisonerCharges(pair.nameId(), pair.bookId(), lookups, config));
+                    recordsProcessed.incrementAndGet();
+                }
+            });
+        }
+
+        String fullPath = Paths.get(config.getVineNewVineFilePath(), fileName).toString();
+        try (RunMetrics.StageTimer ignored = metrics.stage(Stage.WRITE)) {
+            writeToFile(sb.toString(), fullPath);
+        }
+        boolean uploaded;
+        try (RunMetrics.StageTimer ignored = metrics.stage(Stage.UPLOAD)) {
+            uploaded = transferService.uploadDatFile(fullPath, config.getVineFtpDatFolderName().trim(), config);
+        }
+        if (!uploaded) {
+            throw new RuntimeException("Release file upload failed: " + fullPath);
+        }
+        log.info("🚀 Shipped {} released bookings in {}", recordsProcessed.get(), fileName);
+        return recordsProcessed.get();
+    }
+
+    public String prisonerQuery(Long nameId, Long bookId, BookingLookups lookups, VineSystemConfig config){
         StringBuilder sb = new StringBuilder();
 
         try{
-            Optional<Nmmain> personOpt = nmmainRepository.findById(nameId);
-            Nmmain person = personOpt.orElse(null);
+            Optional<PrisonerView> personOpt = lookups.findPrisoner(nameId);
+            PrisonerView person = personOpt.orElse(null);
             if (person == null) {
                 log.info("The name id was not found in the nmmain data table. Name ID = " + nameId);
                 return "";
             }
 
-            Optional<Armain> arrestOpt = armainRepository.findFirstByBookIdOrderByArmainidAsc(bookId);
+            Optional<Armain> arrestOpt = lookups.findFirstArrest(bookId);
             Armain arrest = arrestOpt.orElse(null);
 
             if (arrest == null) {
@@ -145,23 +249,23 @@ public class ChargesServiceImpl implements ChargesService {
                 return "";
             }
 
-            Optional<Jmmain> jmmainOpt = jmmainRepository.findById(bookId);
-            Jmmain jmmain = jmmainOpt.orElse(null);
+            Optional<BookingView> jmmainOpt = lookups.findBooking(bookId);
+            BookingView jmmain = jmmainOpt.orElse(null);
 
-            Optional<Jfachist> jfachistOpt = jfachistRepository.findFirstByBookIdOrderByEventDateDesc(bookId);
-            Jfachist jfachist = jfachistOpt.orElse(null);
+            Optional<FacilityView> jfachistOpt = lookups.findFacility(bookId);
+            FacilityView jfachist = jfachistOpt.orElse(null);
 
-            Optional<Jrelease> jreleaseOpt = jreleaseRepository.findById(bookId);
+            Optional<Jrelease> jreleaseOpt = lookups.findRelease(bookId);
             Jrelease jrelease = jreleaseOpt.orElse(null);
 
-            Optional<Nmmain> aliasOpt = nmmainRepository.findFirstByAliasIdAndNameType(String.valueOf(nameId), "AKA");
-            Nmmain aliasName = aliasOpt.orElse(null);
+            Optional<AliasNameView> aliasOpt = lookups.findAlias(nameId);
+            AliasNameView aliasName = aliasOpt.orElse(null);
 
             assert jmmain != null;
-            Optional<Systab1> systab1Opt = systab1Repository.findFirstByCodeAgcyAndCodeKey(jmmain.getAgency(), "AGCY");
+            Optional<Systab1> systab1Opt = referenceDataCache.find(jmmain.getAgency(), ReferenceDataCache.AGENCY_CODE_KEY);
             Systab1 systab1 = systab1Opt.orElse(null);
-            sb.append(padRight(sysConfigService.getConfig().getVinePrisonerfileheader(), 10));
-            sb.append(padRight(sysConfigService.getConfig().getVineJailidnumber(), 12));
+            sb.append(padRight(config.getVinePrisonerfileheader(), 10));
+            sb.append(padRight(config.getVineJailidnumber(), 12));
             sb.append(padRight(person.getStateId() != null ? person.getStateId() : "", 25));
             sb.append(padRight(String.valueOf(person.getNameId()), 25));
             sb.append(padRight(String.valueOf(jmmain.getBookId()), 25));
@@ -276,32 +380,29 @@ public class ChargesServiceImpl implements ChargesService {
 
         return sb.toString();
     }
-    public String getPrisonerCharges(Long nameId, Long bookId) {
+    public String getPrisonerCharges(Long nameId, Long bookId, BookingLookups lookups, VineSystemConfig config) {
         StringBuilder sb = new StringBuilder();
 
         try {
-            Optional<Nmmain> personOpt = nmmainRepository.findById(nameId);
-            Nmmain person = personOpt.orElse(null);
+            Optional<PrisonerView> personOpt = lookups.findPrisoner(nameId);
+            PrisonerView person = personOpt.orElse(null);
             if (person == null) {
                 log.info("The name id was not found in the nmmain data table. Name ID = " + nameId);
                 return "";
             }
 
-            Optional<Armain> arrestOpt = armainRepository.findFirstByBookIdOrderByArmainidAsc(bookId);
+            Optional<Armain> arrestOpt = lookups.findFirstArrest(bookId);
             Armain arrest = arrestOpt.orElse(null);
 
             if (arrest == null) {
                 log.info("An arrest record was not found in the armain data table. Booking id = " + bookId);
                 return "";
             }
-            List<Charges> charges = chargesRepository.findByBookId(bookId);
-
-            Long ChargeArmainId = arrest.getArmainid();
+            List<ChargeLineView> charges = lookups.getChargeLines(bookId, arrest.getArmainid());
 
-            for (Charges charge : charges) {
-                if (!ChargeArmainId.equals(charge.getArmainid())) continue;
-                    sb.append(padRight(sysConfigService.getConfig().getVineChargesfileheader(), 10));
-                    sb.append(padRight(sysConfigService.getConfig().getVineJailidnumber(), 12));
+            for (ChargeLineView charge : charges) {
+                    sb.append(padRight(config.getVineChargesfileheader(), 10));
+                    sb.append(padRight(config.getVineJailidnumber(), 12));
                     sb.append(padRight(person.getStateId() != null ? person.getStateId() : "", 25));
                     sb.append(padRight(person.getNameId() != null ? String.valueOf(person.getNameId()) : "", 25));
                     sb.append(padRight(String.valueOf(charge.getBookId()), 25));
@@ -326,7 +427,10 @@ public class ChargesServiceImpl implements ChargesService {
     private void writeToFile(String content, String filename) {
         try {
             Path filePath = Paths.get(filename);
-            Files.write(filePath, content.getBytes(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            byte[] bytes = content.getBytes();
+            Files.write(filePath, bytes, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            RunMetrics.current().addBytes(Stage.WRITE, bytes.length);
+            RunMetrics.current().addFiles(Stage.WRITE, 1);
             log.info("Successfully wrote to " + filename);
         } catch (Exception e) {
             log.error("Failed to write to file: " + filename, e);
@@ -338,14 +442,13 @@ public class ChargesServiceImpl implements ChargesService {
     return value != null ? value.toString() : "";
     }
 
-    public String getMugShotString(Long nameId, Long bookId) {
+    public String getMugShotString(Long nameId, Long bookId, BookingLookups lookups, VineSystemConfig config) {
         StringBuilder result = new StringBuilder();
-        String mugshotDir = sysConfigService.getConfig().getVineMugShotDirectory();
-        String newMugshotDir = sysConfigService.getConfig().getVineNewMugShotDirectory();
+        String mugshotDir = config.getVineMugShotDirectory();
+        String newMugshotDir = config.getVineNewMugShotDirectory();
 
         try {
-            List<SysImageEntity> images = sysImageRepository
-                    .findBySystemKeyAndSystemIdOrderByAddTimeDesc("N", nameId);
+            List<SysImageEntity> images = lookups.getImages(nameId);
 
             if (images.isEmpty()) {
                 log.info("No mugshot records found in sys_img table for nameId={}", nameId);
@@ -367,6 +470,8 @@ public class ChargesServiceImpl implements ChargesService {
                 // Always copy as <bookId>.jpg
                 Path targetPath = Paths.get(newMugshotDir, bookId + ".jpg");
                 Files.copy(sourcePath, targetPath, StandardCopyOption.REPLACE_EXISTING);
+                RunMetrics.current().addFiles(Stage.MUGSHOT, 1);
+                RunMetrics.current().addBytes(Stage.MUGSHOT, Files.size(targetPath));
                 atLeastOneFound = true;
 
                 result.append("OSSIIM    ");
@@ -392,8 +497,8 @@ public class ChargesServiceImpl implements ChargesService {
         return result.toString();
     }
 
-    public void clearNewMugshotDir() {
-        String newMugshotDir = sysConfigService.getConfig().getVineNewMugShotDirectory();
+    public void clearNewMugshotDir(VineSystemConfig config) {
+        String newMugshotDir = config.getVineNewMugShotDirectory();
         try {
             Path dir = Paths.get(newMugshotDir);
             Files.createDirectories(dir); // Ensure dir exists
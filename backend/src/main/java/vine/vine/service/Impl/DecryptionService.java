@@ -8,10 +8,17 @@ import org.springframework.stereotype.Service;
 import javax.crypto.Cipher;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
 import java.util.Base64;
-import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class DecryptionService {
@@ -30,10 +37,48 @@ public class DecryptionService {
     @Value("${vine.encryption.padding:PKCS5Padding}")
     private String padding;
 
+    // Version of vine.encryption.key, written into every envelope produced by encrypt()
+    @Value("${vine.encryption.key-version:1}")
+    private int keyVersion;
+
+    // How long a decrypted value stays cached; 0 disables the cache
+    @Value("${vine.encryption.cache-ttl-seconds:300}")
+    private long cacheTtlSeconds;
+
+    // Decrypted values kept at most; expired entries are swept when the cache grows past this
+    @Value("${vine.encryption.cache-max-entries:256}")
+    private int cacheMaxEntries;
+
     private static final String CHARSET = StandardCharsets.UTF_8.name();
 
+    /*
+     * Envelope format: vine$<algorithm>$<key version>$<payload>
+     * '$' is not part of the Base64 alphabet, so tagged values never collide with legacy untagged ones.
+     */
+    private static final String ENVELOPE_PREFIX = "vine$";
+    private static final String ENVELOPE_SEPARATOR = "$";
+    private static final String ALG_AES = "aes";
+    private static final String ALG_BASE64 = "b64";
+    private static final String ALG_XOR = "xor";
+
+    // Derived AES keys, one per source password (SHA-256 derivation runs once per key)
+    private final Map<String, SecretKeySpec> keyCache = new ConcurrentHashMap<>();
+
+    // Cipher instances are not thread-safe, so each thread keeps its own and re-inits it per call
+    private final ThreadLocal<Cipher> threadCipher = new ThreadLocal<>();
+
+    // Decrypted values keyed by their stored (encrypted) form
+    private final Map<String, CachedSecret> secretCache = new ConcurrentHashMap<>();
+
+    private record CachedSecret(String value, long expiresAtNanos) {
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+
     /**
-     * Main decrypt method - attempts multiple decryption strategies
+     * Main decrypt method - tagged envelopes are dispatched on their algorithm tag,
+     * legacy untagged values fall back to trying each strategy in turn
      */
     public String decrypt(String encrypted) {
         if (encrypted == null || encrypted.trim().isEmpty()) {
@@ -43,6 +88,96 @@ public class DecryptionService {
 
         String trimmed = encrypted.trim();
 
+        if (cacheTtlSeconds > 0) {
+            long now = System.nanoTime();
+            CachedSecret cached = secretCache.get(trimmed);
+            if (cached != null) {
+                if (!cached.isExpired(now)) {
+                    return cached.value();
+                }
+                secretCache.remove(trimmed, cached);
+            }
+            String decrypted = decryptUncached(trimmed, encrypted);
+            if (secretCache.size() >= cacheMaxEntries) {
+                evictExpired(now);
+            }
+            secretCache.put(trimmed, new CachedSecret(decrypted, now + TimeUnit.SECONDS.toNanos(cacheTtlSeconds)));
+            return decrypted;
+        }
+
+        return decryptUncached(trimmed, encrypted);
+    }
+
+    /**
+     * Drops all cached decrypted values; called whenever the system configuration is reloaded
+     */
+    public void invalidateCache() {
+        secretCache.clear();
+        logger.debug("Decrypted secret cache invalidated");
+    }
+
+    /**
+     * Drops expired entries, and everything if the cache is still full: rotated secrets leave their old stored
+     * forms behind, which are never looked up again
+     */
+    private void evictExpired(long now) {
+        secretCache.values().removeIf(cached -> cached.isExpired(now));
+        if (secretCache.size() >= cacheMaxEntries) {
+            secretCache.clear();
+            logger.debug("Decrypted secret cache full ({} entries), cleared", cacheMaxEntries);
+        }
+    }
+
+    int cachedSecretCount() {
+        return secretCache.size();
+    }
+
+    private String decryptUncached(String trimmed, String encrypted) {
+        if (isEnvelope(trimmed)) {
+            return decryptEnvelope(trimmed, encrypted);
+        }
+        return decryptUntagged(trimmed, encrypted);
+    }
+
+    /**
+     * Decrypts a tagged value with exactly the algorithm and key version it names
+     */
+    private String decryptEnvelope(String envelope, String encrypted) {
+        String[] parts = envelope.substring(ENVELOPE_PREFIX.length()).split("\\" + ENVELOPE_SEPARATOR, 3);
+        if (parts.length != 3) {
+            logger.error("Malformed encryption envelope, returning as-is");
+            return encrypted;
+        }
+
+        String alg = parts[0];
+        String payload = parts[2];
+        try {
+            int version = Integer.parseInt(parts[1]);
+            switch (alg) {
+                case ALG_AES:
+                    if (version != keyVersion) {
+                        logger.error("Value was encrypted with key version {} but the configured key is version {}", version, keyVersion);
+                        return encrypted;
+                    }
+                    return decryptAES(payload);
+                case ALG_BASE64:
+                    return decryptBase64(payload);
+                case ALG_XOR:
+                    return decryptXOR(payload, encryptionKey);
+                default:
+                    logger.error("Unknown encryption algorithm tag '{}', returning as-is", alg);
+                    return encrypted;
+            }
+        } catch (Exception e) {
+            logger.error("Decryption of {} envelope failed: {}", alg, e.getMessage());
+            return encrypted;
+        }
+    }
+
+    /**
+     * Legacy path for values stored before envelopes existed
+     */
+    private String decryptUntagged(String trimmed, String encrypted) {
         // Try AES decryption first (most common)
         try {
             return decryptAES(trimmed);
@@ -73,21 +208,22 @@ public class DecryptionService {
      * AES decryption with CBC mode
      */
     private String decryptAES(String encrypted) throws Exception {
+        return new String(decryptAESBytes(encrypted), StandardCharsets.UTF_8);
+    }
+
+    private byte[] decryptAESBytes(String encrypted) throws Exception {
         byte[] encryptedBytes = Base64.getDecoder().decode(encrypted);
 
-        // Generate key from password
-        SecretKeySpec keySpec = generateKeyFromPassword(encryptionKey);
+        // Derived key is cached per password
+        SecretKeySpec keySpec = keyFor(encryptionKey);
 
-        // Extract IV (first 16 bytes) and encrypted data
-        byte[] iv = Arrays.copyOfRange(encryptedBytes, 0, 16);
-        byte[] cipherText = Arrays.copyOfRange(encryptedBytes, 16, encryptedBytes.length);
+        // First 16 bytes are the IV, the rest is the encrypted data
+        IvParameterSpec ivSpec = new IvParameterSpec(encryptedBytes, 0, 16);
 
-        Cipher cipher = Cipher.getInstance(algorithm + "/" + mode + "/" + padding);
-        IvParameterSpec ivSpec = new IvParameterSpec(iv);
+        Cipher cipher = cipher();
         cipher.init(Cipher.DECRYPT_MODE, keySpec, ivSpec);
 
-        byte[] decryptedBytes = cipher.doFinal(cipherText);
-        return new String(decryptedBytes, StandardCharsets.UTF_8);
+        return cipher.doFinal(encryptedBytes, 16, encryptedBytes.length - 16);
     }
 
     /**
@@ -124,21 +260,45 @@ public class DecryptionService {
         return new String(result, StandardCharsets.UTF_8);
     }
 
+    /**
+     * Cached AES key for a password, derived on first use
+     */
+    private SecretKeySpec keyFor(String password) throws GeneralSecurityException {
+        SecretKeySpec keySpec = keyCache.get(password);
+        if (keySpec == null) {
+            keySpec = generateKeyFromPassword(password);
+            keyCache.put(password, keySpec);
+        }
+        return keySpec;
+    }
+
+    /**
+     * This thread's Cipher for the configured transformation
+     */
+    private Cipher cipher() throws GeneralSecurityException {
+        Cipher cipher = threadCipher.get();
+        if (cipher == null) {
+            cipher = Cipher.getInstance(algorithm + "/" + mode + "/" + padding);
+            threadCipher.set(cipher);
+        }
+        return cipher;
+    }
+
     /**
      * Generate AES key from password using SHA-256
      */
-    private SecretKeySpec generateKeyFromPassword(String password) throws Exception {
+    private SecretKeySpec generateKeyFromPassword(String password) throws GeneralSecurityException {
         MessageDigest sha = MessageDigest.getInstance("SHA-256");
         byte[] key = sha.digest(password.getBytes(StandardCharsets.UTF_8));
         return new SecretKeySpec(key, algorithm);
     }
 
     /**
-     * Encrypt method (for testing purposes)
+     * Encrypts into a tagged envelope using the current key version
      */
     public String encrypt(String plainText) {
         try {
-            return encryptAES(plainText);
+            return ENVELOPE_PREFIX + ALG_AES + ENVELOPE_SEPARATOR + keyVersion + ENVELOPE_SEPARATOR + encryptAES(plainText);
         } catch (Exception e) {
             logger.error("Encryption failed: {}", e.getMessage());
             return plainText;
@@ -149,9 +309,9 @@ public class DecryptionService {
      * AES encryption with CBC mode
      */
     private String encryptAES(String plainText) throws Exception {
-        SecretKeySpec keySpec = generateKeyFromPassword(encryptionKey);
+        SecretKeySpec keySpec = keyFor(encryptionKey);
 
-        Cipher cipher = Cipher.getInstance(algorithm + "/" + mode + "/" + padding);
+        Cipher cipher = cipher();
         cipher.init(Cipher.ENCRYPT_MODE, keySpec);
 
         byte[] iv = cipher.getIV();
@@ -189,13 +349,66 @@ public class DecryptionService {
     }
 
     /**
-     * Check if a string appears to be encrypted (contains only base64 characters)
+     * Whether the value carries the vine$ algorithm/key-version tag
+     */
+    public boolean isEnvelope(String value) {
+        return value != null && value.trim().startsWith(ENVELOPE_PREFIX);
+    }
+
+    /**
+     * Re-encrypts a legacy untagged AES value into an envelope. Only values that decrypt as AES to printable
+     * UTF-8 text are converted: a Base64-looking plain value passes the PKCS5 padding check about once in 256
+     * tries and would otherwise be replaced by garbage. Base64/XOR/plain values are ambiguous and are left for
+     * an operator to re-enter.
+     */
+    public Optional<String> reencryptLegacyValue(String stored) {
+        if (stored == null || stored.trim().isEmpty() || isEnvelope(stored)) {
+            return Optional.empty();
+        }
+        Optional<String> plainText;
+        try {
+            plainText = printableText(decryptAESBytes(stored.trim()));
+        } catch (Exception e) {
+            logger.debug("Legacy value is not AES encrypted, leaving it untouched: {}", e.getMessage());
+            return Optional.empty();
+        }
+        if (plainText.isEmpty()) {
+            logger.debug("Legacy value decrypts as AES but not to printable text, leaving it untouched");
+            return Optional.empty();
+        }
+        return Optional.of(encrypt(plainText.get()));
+    }
+
+    /**
+     * The bytes as text if they are well-formed UTF-8 without control characters
+     */
+    private static Optional<String> printableText(byte[] bytes) {
+        String text;
+        try {
+            text = StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap(bytes))
+                    .toString();
+        } catch (CharacterCodingException e) {
+            return Optional.empty();
+        }
+        boolean printable = !text.isEmpty() && text.codePoints().noneMatch(Character::isISOControl);
+        return printable ? Optional.of(text) : Optional.empty();
+    }
+
+    /**
+     * Check if a string appears to be encrypted (tagged envelope, or legacy base64)
      */
     public boolean isEncrypted(String value) {
         if (value == null || value.trim().isEmpty()) {
             return false;
         }
 
+        if (isEnvelope(value)) {
+            return true;
+        }
+
         // Check if it's a valid base64 string
         try {
             Base64.getDecoder().decode(value.trim());
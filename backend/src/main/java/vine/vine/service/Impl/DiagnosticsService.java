@@ -0,0 +1,59 @@
+package vine.vine.service.Impl;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import vine.vine.config.ReplicaLagMonitor;
+import vine.vine.domain.dto.response.ExtractionLimiterDto;
+import vine.vine.domain.dto.response.PoolDiagnosticsDto;
+import vine.vine.domain.dto.response.PoolStatsDto;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class DiagnosticsService {
+
+    // Every Hikari pool bean: web, extraction, quartz and the replica when enabled
+    private final Map<String, HikariDataSource> pools;
+    private final ObjectProvider<ReplicaLagMonitor> replicaLagMonitor;
+    private final ExtractionLimiter extractionLimiter;
+
+    public PoolDiagnosticsDto getPoolDiagnostics() {
+        List<PoolStatsDto> stats = pools.values().stream()
+                .map(DiagnosticsService::toStats)
+                .sorted(Comparator.comparing(PoolStatsDto::getPoolName))
+                .toList();
+
+        ReplicaLagMonitor monitor = replicaLagMonitor.getIfAvailable();
+        if (monitor == null) {
+            return new PoolDiagnosticsDto(stats, false, false, null, null);
+        }
+        boolean usable = monitor.isReplicaUsable();
+        return new PoolDiagnosticsDto(stats, true, usable, monitor.getLastLagSeconds(), monitor.getLastCheckedAt());
+    }
+
+    public ExtractionLimiterDto getExtractionLimiter() {
+        return extractionLimiter.getStats();
+    }
+
+    private static PoolStatsDto toStats(HikariDataSource dataSource) {
+        // The MXBean is only there once the pool has handed out its first connection
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            return new PoolStatsDto(dataSource.getPoolName(), false, 0, 0, 0, 0,
+                    dataSource.getMaximumPoolSize(), dataSource.getMinimumIdle());
+        }
+        return new PoolStatsDto(dataSource.getPoolName(), true,
+                pool.getActiveConnections(),
+                pool.getIdleConnections(),
+                pool.getTotalConnections(),
+                pool.getThreadsAwaitingConnection(),
+                dataSource.getMaximumPoolSize(),
+                dataSource.getMinimumIdle());
+    }
+}
@@ -0,0 +1,163 @@
+package vine.vine.service.Impl;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import vine.vine.domain.dto.response.ExtractionLimiterDto;
+
+/**
+ * Adaptive (AIMD) limit on the extraction queries in flight against the jail database. Every query's latency feeds
+ * a moving average: while it stays under the target and the limit is in use, the limit grows by about one per
+ * round of queries; when the average exceeds the target or a query fails, the limit is cut by a fixed ratio, at
+ * most once per target interval. Queries over the limit wait for a slot. At the minimum limit with the average
+ * still over target the database is considered strained, and {@link #pace()} holds back the next chunk.
+ */
+@Slf4j
+@Component
+public class ExtractionLimiter {
+
+    private static final double LATENCY_SMOOTHING = 0.2;
+
+    @Value("${vine.extraction.limiter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${vine.extraction.limiter.initial-limit:4}")
+    private int initialLimit;
+
+    @Value("${vine.extraction.limiter.min-limit:1}")
+    private int minLimit;
+
+    // Keep at or below vine.datasource.extraction.maximum-pool-size
+    @Value("${vine.extraction.limiter.max-limit:8}")
+    private int maxLimit;
+
+    @Value("${vine.extraction.limiter.latency-target-ms:500}")
+    private long latencyTargetMs;
+
+    @Value("${vine.extraction.limiter.backoff-ratio:0.7}")
+    private double backoffRatio;
+
+    @Value("${vine.extraction.limiter.max-pause-ms:5000}")
+    private long maxPauseMs;
+
+    private double limit;
+    private int inFlight;
+    private double latencyMs = -1;
+    private long lastDecreaseNanos;
+    private long waits;
+    private long pauses;
+    private LocalDateTime lastAdjustedAt;
+
+    @PostConstruct
+    void init() {
+        minLimit = Math.max(1, minLimit);
+        maxLimit = Math.max(minLimit, maxLimit);
+        limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        lastDecreaseNanos = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(latencyTargetMs);
+    }
+
+    /**
+     * Runs one extraction query inside the limit and records its latency
+     */
+    public <T> T execute(Supplier<T> query) {
+        if (!enabled) {
+            return query.get();
+        }
+        acquire();
+        long started = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            T result = query.get();
+            succeeded = true;
+            return result;
+        } finally {
+            release(System.nanoTime() - started, succeeded);
+        }
+    }
+
+    /**
+     * Called between chunks: while the database is strained, waits about as long as the average latency overshoots
+     * the target (at most max-pause-ms), so the run slows down instead of adding load
+     */
+    public void pace() {
+        long pauseMs;
+        synchronized (this) {
+            if (!enabled || !isStrained()) {
+                return;
+            }
+            pauseMs = Math.min(maxPauseMs, Math.round(latencyMs - latencyTargetMs));
+            pauses++;
+        }
+        if (pauseMs <= 0) {
+            return;
+        }
+        log.debug("🐢 Jail database strained (avg {} ms), pausing extraction for {} ms", Math.round(latencyMs), pauseMs);
+        try {
+            Thread.sleep(pauseMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public synchronized ExtractionLimiterDto getStats() {
+        return new ExtractionLimiterDto(enabled, (int) limit, limit, minLimit, maxLimit, inFlight,
+                latencyMs >= 0 ? Math.round(latencyMs) : null, latencyTargetMs, isStrained(), waits, pauses, lastAdjustedAt);
+    }
+
+    private synchronized void acquire() {
+        boolean waited = false;
+        while (inFlight >= (int) limit) {
+            waited = true;
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for an extraction query slot", e);
+            }
+        }
+        if (waited) {
+            waits++;
+        }
+        inFlight++;
+    }
+
+    private synchronized void release(long latencyNanos, boolean succeeded) {
+        boolean saturated = inFlight >= (int) limit;
+        inFlight--;
+
+        double sampleMs = latencyNanos / 1_000_000.0;
+        latencyMs = latencyMs < 0 ? sampleMs : latencyMs + LATENCY_SMOOTHING * (sampleMs - latencyMs);
+
+        long now = System.nanoTime();
+        if (!succeeded || latencyMs > latencyTargetMs) {
+            if (now - lastDecreaseNanos >= TimeUnit.MILLISECONDS.toNanos(latencyTargetMs) && limit > minLimit) {
+                double previous = limit;
+                limit = Math.max(minLimit, limit * backoffRatio);
+                lastDecreaseNanos = now;
+                lastAdjustedAt = LocalDateTime.now();
+                log.info("⚠️ Extraction query {} (avg {} ms, target {} ms), limit {} -> {}",
+                        succeeded ? "latency over target" : "failed", Math.round(latencyMs), latencyTargetMs,
+                        (int) previous, (int) limit);
+            }
+        } else if (saturated && limit < maxLimit) {
+            // Additive increase: about one more slot after a full round of queries at the current limit
+            int previous = (int) limit;
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+            if ((int) limit != previous) {
+                lastAdjustedAt = LocalDateTime.now();
+                log.debug("📈 Extraction query limit {} -> {} (avg {} ms)", previous, (int) limit, Math.round(latencyMs));
+            }
+        }
+        notifyAll();
+    }
+
+    private boolean isStrained() {
+        return limit <= minLimit && latencyMs > latencyTargetMs;
+    }
+}
@@ -0,0 +1,199 @@
+package vine.vine.service.Impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import com.microsoft.sqlserver.jdbc.SQLServerDataTable;
+import com.microsoft.sqlserver.jdbc.SQLServerPreparedStatement;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs a query for a set of booking or name ids without one parameter per id in an IN list. The SQL names the id
+ * set as {@value #IDS}, a table reference aliased {@code ids} with one BIGINT column {@code id}, and uses it as a
+ * semi-join, e.g. {@code WHERE book_id IN (SELECT ids.id FROM {ids})}.
+ * <ul>
+ *   <li>SQL Server: the ids travel as one table-valued parameter of type dbo.vine_id_list, so the statement text
+ *       and its cached plan are the same for every set size, in one round trip</li>
+ *   <li>elsewhere (H2 in tests), on a SQL Server database without the type, or with
+ *       vine.extraction.id-set-mode=values: a VALUES row constructor padded to the next bucket size by repeating
+ *       the last id, so only a handful of statement shapes reach the plan cache; sets beyond the largest bucket
+ *       are split, keeping far below the 2,100 parameter limit</li>
+ * </ul>
+ * Extraction reads may be served by the primary or the replica, so the table type is looked up per target database
+ * (the JDBC URL of the connection the query runs on). A query that still finds the type missing falls back to the
+ * VALUES list, and that database is not sent table-valued parameters again.
+ * The padding repeats ids, so the set must only be used where duplicates do not matter (IN / EXISTS). Statements
+ * run inside the {@link ExtractionLimiter}.
+ */
+@Slf4j
+@Component
+public class IdSetQuery {
+
+    public static final String IDS = "{ids}";
+
+    // Created by db/migration/sqlserver/V8__id_list_table_type.sql
+    static final String TABLE_TYPE = "dbo.vine_id_list";
+
+    private static final int[] BUCKETS = {8, 16, 32, 64, 128, 256, 512};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ExtractionLimiter limiter;
+
+    // auto: table-valued parameter when the database has the table type, VALUES list otherwise; tvp; values
+    @Value("${vine.extraction.id-set-mode:auto}")
+    private String mode;
+
+    // SQL Server error: Cannot find data type
+    private static final int MISSING_TYPE_ERROR = 2715;
+
+    // Per target database, resolved on first use there (after Flyway had the chance to create the table type)
+    private final Map<String, Boolean> tableValuedByTarget = new ConcurrentHashMap<>();
+
+    public IdSetQuery(JdbcTemplate jdbcTemplate, ExtractionLimiter limiter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.limiter = limiter;
+    }
+
+    public <T> List<T> query(String sql, Collection<Long> ids, RowMapper<T> rowMapper) {
+        int occurrences = countOccurrences(sql);
+        if (occurrences == 0) {
+            throw new IllegalArgumentException("Query does not reference the id set " + IDS + ": " + sql);
+        }
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinct.isEmpty()) {
+            return List.of();
+        }
+
+        String target = tableValuedTarget();
+        if (target != null) {
+            try {
+                return limiter.execute(() -> jdbcTemplate.query(sql.replace(IDS, "? AS ids"), ps -> {
+                    for (int i = 1; i <= occurrences; i++) {
+                        bindTable(ps, i, distinct);
+                    }
+                }, rowMapper));
+            } catch (DataAccessException e) {
+                if (!isMissingTableType(e)) {
+                    throw e;
+                }
+                tableValuedByTarget.put(target, false);
+                log.warn("⚠️ {} is missing on {}, using padded VALUES lists there", TABLE_TYPE, target);
+            }
+        }
+
+        int largest = BUCKETS[BUCKETS.length - 1];
+        List<T> results = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += largest) {
+            List<Long> batch = distinct.subList(from, Math.min(from + largest, distinct.size()));
+            int bucket = bucketFor(batch.size());
+            results.addAll(limiter.execute(() -> jdbcTemplate.query(sql.replace(IDS, valuesList(bucket)), ps -> {
+                int index = 1;
+                for (int occurrence = 0; occurrence < occurrences; occurrence++) {
+                    for (int i = 0; i < bucket; i++) {
+                        ps.setLong(index++, batch.get(Math.min(i, batch.size() - 1)));
+                    }
+                }
+            }, rowMapper)));
+        }
+        return results;
+    }
+
+    /**
+     * The database the current connection points at, when the ids should travel to it as a table-valued
+     * parameter; null for VALUES lists. Within the extraction chunk's transaction this is the connection the
+     * query itself runs on.
+     */
+    private String tableValuedTarget() {
+        String configured = mode.trim().toLowerCase();
+        if (configured.equals("values")) {
+            return null;
+        }
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            String target = connection.getMetaData().getURL();
+            boolean tableValued = tableValuedByTarget.computeIfAbsent(target, url -> {
+                boolean resolved = configured.equals("tvp") || detectTableType(connection);
+                log.info("🧮 Id sets on {} are passed as {}", url,
+                        resolved ? "table-valued parameters (" + TABLE_TYPE + ")" : "padded VALUES lists");
+                return resolved;
+            });
+            return tableValued ? target : null;
+        });
+    }
+
+    private static boolean detectTableType(Connection connection) {
+        try {
+            if (!connection.getMetaData().getDatabaseProductName().contains("Microsoft SQL Server")) {
+                return false;
+            }
+            try (PreparedStatement ps = connection.prepareStatement("SELECT TYPE_ID(?)")) {
+                ps.setString(1, TABLE_TYPE);
+                try (ResultSet rs = ps.executeQuery()) {
+                    return rs.next() && rs.getObject(1) != null;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ Could not check for the {} table type, using VALUES lists: {}", TABLE_TYPE, e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean isMissingTableType(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && sqlException.getErrorCode() == MISSING_TYPE_ERROR) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void bindTable(PreparedStatement ps, int index, List<Long> ids) throws SQLException {
+        SQLServerDataTable table = new SQLServerDataTable();
+        table.addColumnMetadata("id", Types.BIGINT);
+        for (Long id : ids) {
+            table.addRow(id);
+        }
+        ps.unwrap(SQLServerPreparedStatement.class).setStructured(index, TABLE_TYPE, table);
+    }
+
+    private static int bucketFor(int size) {
+        for (int bucket : BUCKETS) {
+            if (size <= bucket) {
+                return bucket;
+            }
+        }
+        return BUCKETS[BUCKETS.length - 1];
+    }
+
+    private static String valuesList(int size) {
+        StringBuilder sb = new StringBuilder("(VALUES ");
+        for (int i = 0; i < size; i++) {
+            sb.append(i == 0 ? "" : ", ").append("(CAST(? AS BIGINT))");
+        }
+        return sb.append(") AS ids(id)").toString();
+    }
+
+    private static int countOccurrences(String sql) {
+        int count = 0;
+        for (int index = sql.indexOf(IDS); index >= 0; index = sql.indexOf(IDS, index + IDS.length())) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import vine.vine.domain.dto.response.JmmainResponse;
 import vine.vine.repository.JmmainRepository;
 import vine.vine.service.JmmainService;
@@ -15,6 +16,7 @@ public class JmmainServiceImpl implements JmmainService {
     private final JmmainRepository jmmainRepository;
 
     @Override
+    @Transactional(readOnly = true)
     public Page<JmmainResponse> getAllJmmain(Pageable pageable) {
         return jmmainRepository.findAll(pageable)
                 .map(JmmainResponse::from);
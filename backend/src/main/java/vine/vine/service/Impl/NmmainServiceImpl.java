@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import vine.vine.domain.dto.response.NmmainResponse;
 import vine.vine.repository.*;
 import vine.vine.service.NmmainService;
@@ -21,6 +22,7 @@ public class NmmainServiceImpl implements NmmainService {
 
 
     @Override
+    @Transactional(readOnly = true)
     public Page<NmmainResponse> getAllNmmain(Pageable pageable) {
         return nmmainRepository.findAll(pageable)
                 .map(NmmainResponse::from);
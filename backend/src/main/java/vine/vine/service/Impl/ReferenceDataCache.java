@@ -0,0 +1,170 @@
+package vine.vine.service.Impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import vine.vine.domain.Systab1;
+import vine.vine.domain.dto.response.ReferenceDataCacheStatsDto;
+import vine.vine.repository.Systab1Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, TTL-based cache of systab1 code tables. A code table (all rows of one code_key, e.g. AGCY) is
+ * loaded with a single query and kept until it expires, is evicted as least recently used, or is invalidated.
+ * Lookups of codes missing from a loaded table are answered from the table without a query.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReferenceDataCache {
+
+    public static final String AGENCY_CODE_KEY = "AGCY";
+
+    private final Systab1Repository systab1Repository;
+
+    // Expiry of a loaded code table; 0 reloads on every access
+    @Value("${vine.refdata.ttl-minutes:15}")
+    private long ttlMinutes;
+
+    // Code tables kept at most; the least recently used one is evicted beyond this
+    @Value("${vine.refdata.max-code-tables:32}")
+    private int maxCodeTables;
+
+    /**
+     * One loaded code table: code_agcy -> first row (lowest systab1id) with that agency
+     */
+    private record CodeTable(Map<String, Systab1> rowsByAgency, List<Systab1> rows, long loadedAtNanos) {
+    }
+
+    // Access-ordered, guarded by itself
+    private final LinkedHashMap<String, CodeTable> tables = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong totalLoadNanos = new AtomicLong();
+    private final AtomicLong lastLoadNanos = new AtomicLong();
+    private volatile LocalDateTime lastLoadedAt;
+
+    /**
+     * Row of the given code table for one agency, loading the table on a miss or after expiry
+     */
+    public Optional<Systab1> find(String codeAgcy, String codeKey) {
+        if (codeAgcy == null || codeKey == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(table(codeKey).rowsByAgency().get(codeAgcy));
+    }
+
+    /**
+     * All rows of one code table, in systab1id order
+     */
+    public List<Systab1> findAll(String codeKey) {
+        return table(codeKey).rows();
+    }
+
+    /**
+     * Reloads a code table unconditionally; called at the start of a run so the run sees current messages
+     * and its lookups never reach the database.
+     */
+    public void preload(String codeKey) {
+        CodeTable table = load(codeKey);
+        log.info("📚 Preloaded {} {} rows in {} ms", table.rows().size(), codeKey,
+                TimeUnit.NANOSECONDS.toMillis(lastLoadNanos.get()));
+    }
+
+    public void invalidate(String codeKey) {
+        synchronized (tables) {
+            tables.remove(codeKey);
+        }
+        log.info("Reference data {} invalidated", codeKey);
+    }
+
+    public void invalidateAll() {
+        synchronized (tables) {
+            tables.clear();
+        }
+        log.info("Reference data cache invalidated");
+    }
+
+    public ReferenceDataCacheStatsDto getStats() {
+        List<String> codeKeys;
+        synchronized (tables) {
+            codeKeys = new ArrayList<>(tables.keySet());
+        }
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long requests = hitCount + missCount;
+        return new ReferenceDataCacheStatsDto(
+                codeKeys,
+                maxCodeTables,
+                TimeUnit.MINUTES.toSeconds(ttlMinutes),
+                hitCount,
+                missCount,
+                requests > 0 ? (double) hitCount / requests : 0.0,
+                loads.get(),
+                evictions.get(),
+                TimeUnit.NANOSECONDS.toMillis(totalLoadNanos.get()),
+                TimeUnit.NANOSECONDS.toMillis(lastLoadNanos.get()),
+                lastLoadedAt
+        );
+    }
+
+    private CodeTable table(String codeKey) {
+        CodeTable table;
+        synchronized (tables) {
+            table = tables.get(codeKey);
+        }
+        if (table != null && !isExpired(table)) {
+            hits.incrementAndGet();
+            return table;
+        }
+        misses.incrementAndGet();
+        // Loaded outside the lock; two threads missing together both query, and the later one wins
+        return load(codeKey);
+    }
+
+    private CodeTable load(String codeKey) {
+        long start = System.nanoTime();
+        List<Systab1> rows = List.copyOf(systab1Repository.findByCodeKeyOrderBySystab1idAsc(codeKey));
+        Map<String, Systab1> rowsByAgency = new LinkedHashMap<>();
+        for (Systab1 row : rows) {
+            if (row.getCodeAgcy() != null) {
+                rowsByAgency.putIfAbsent(row.getCodeAgcy(), row);
+            }
+        }
+        long now = System.nanoTime();
+        CodeTable table = new CodeTable(Collections.unmodifiableMap(rowsByAgency), rows, now);
+
+        loads.incrementAndGet();
+        totalLoadNanos.addAndGet(now - start);
+        lastLoadNanos.set(now - start);
+        lastLoadedAt = LocalDateTime.now();
+
+        synchronized (tables) {
+            tables.put(codeKey, table);
+            while (tables.size() > Math.max(1, maxCodeTables)) {
+                String eldest = tables.keySet().iterator().next();
+                tables.remove(eldest);
+                evictions.incrementAndGet();
+                log.debug("Evicted reference data {}", eldest);
+            }
+        }
+        return table;
+    }
+
+    private boolean isExpired(CodeTable table) {
+        return System.nanoTime() - table.loadedAtNanos() >= TimeUnit.MINUTES.toNanos(ttlMinutes);
+    }
+}
@@ -1,11 +1,25 @@
 package vine.vine.service.Impl;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
@@ -26,8 +40,49 @@ public class SysConfigService {
 
 
     private final SystemConfigRepository sysCfgRepository;
-    private VineSystemConfig vineSystemConfig;
     private final DecryptionService decryptionService;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Normalized (lower-case, trimmed) sys_name -> sys_cfgid, so single-key reads and writes never scan the table
+    private final Map<String, Long> configIdsByName = new ConcurrentHashMap<>();
+
+    // Latest immutable snapshot; readers never lock, writers (synchronized) publish a whole new snapshot
+    private final AtomicReference<PublishedConfig> published = new AtomicReference<>();
+    private final AtomicLong configVersion = new AtomicLong();
+
+    // System.nanoTime() (monotonic) of the last database check
+    private final AtomicLong lastPollNanos = new AtomicLong(System.nanoTime());
+
+    // Fingerprint the vine rows had when they were last read in full
+    private final AtomicReference<String> lastFingerprint = new AtomicReference<>();
+
+    // Minimum time between database checks for values changed outside the application
+    @Value("${vine.config.poll-interval-seconds:30}")
+    private long pollIntervalSeconds;
+
+    // One row: count and hash aggregate of the vine rows; blank reads all vine rows on every check
+    @Value("${vine.config.fingerprint-sql:SELECT COUNT(*), CHECKSUM_AGG(BINARY_CHECKSUM(sys_cfgid, sysname, defavalue)) FROM sys_cfg WHERE LOWER(sysname) LIKE 'g_vine%'}")
+    private String fingerprintSql;
+
+    /**
+     * A published VineSystemConfig together with the raw vine key/values it was built from
+     */
+    private record PublishedConfig(VineSystemConfig config, Map<String, String> values) {
+    }
+
+    /**
+     * The vine rows as read from sys_cfg: name -> id and name -> value, lowest sys_cfgid first for duplicates
+     */
+    private record VineEntries(Map<String, Long> idsByName, Map<String, String> values) {
+    }
+
+    /**
+     * Exported form of a pinned snapshot: its version and the stored vine values it was built from
+     */
+    private record ConfigSnapshot(long version, Map<String, String> values) {
+    }
+
+    private static final ObjectMapper SNAPSHOT_MAPPER = new ObjectMapper();
 
     // FTP Configuration Keys
     private static final String FTP_USERNAME_KEY = "gcvineftpusername";
@@ -47,33 +102,99 @@ public class SysConfigService {
     private static final String NEW_VINE_FILE_PATH_KEY = "gcvinenewvinefilepath";
     private static final String INTERFILE_NAME_KEY = "gcvineinterfile";
 
+    // Keys whose values are stored encrypted
+    private static final Set<String> ENCRYPTED_KEYS = Set.of(FTP_PASSWORD_KEY);
+
+    // Rewrite legacy untagged encrypted values into the tagged envelope format on startup
+    @Value("${vine.encryption.migrate-legacy-values:true}")
+    private boolean migrateLegacyValues;
+
     @PostConstruct
     public void init() {
         log.info("Initializing VineSystemConfig via @PostConstruct.");
+        if (migrateLegacyValues) {
+            migrateLegacyEncryptedValues();
+        }
         loadSystemConfiguration();
     }
 
-    private void loadSystemConfiguration() {
-        Map<String, String> configMap;
+    /**
+     * One-time migration of untagged encrypted values to the envelope format. Already tagged values are skipped,
+     * so this is a no-op on every startup after the first.
+     */
+    private void migrateLegacyEncryptedValues() {
         try {
-            configMap = sysCfgRepository.findAll().stream()
-                    .filter(Objects::nonNull)
-                    .filter(e -> e.getSysName() != null && e.getDefaValue() != null)
-                    .map(e -> Map.entry(e.getSysName().toLowerCase().trim(), e.getDefaValue()))
-                    .filter(e -> e.getKey().startsWith("gcvine") || e.getKey().startsWith("gnvine") || e.getKey().startsWith("glvine"))
-                    .collect(Collectors.toMap(
-                            Map.Entry::getKey,
-                            Map.Entry::getValue,
-                            (a, b) -> {
-                                log.warn("Duplicate configuration key found: {}. Keeping the first value.", a);
-                                return a;
-                            }
-                    ));
+            List<SystemConfigEntity> migrated = new ArrayList<>();
+            for (SystemConfigEntity entity : sysCfgRepository.findAll()) {
+                if (entity.getSysName() == null || !ENCRYPTED_KEYS.contains(entity.getSysName().toLowerCase().trim())) {
+                    continue;
+                }
+                if (entity.getDefaValue() == null || decryptionService.isEnvelope(entity.getDefaValue())) {
+                    continue;
+                }
+
+                Optional<String> envelope = decryptionService.reencryptLegacyValue(entity.getDefaValue());
+                if (envelope.isPresent()) {
+                    entity.setDefaValue(envelope.get());
+                    migrated.add(entity);
+                } else {
+                    log.warn("Configuration '{}' is not a legacy AES value and was not migrated; re-enter it to encrypt it.", entity.getSysName());
+                }
+            }
+
+            if (!migrated.isEmpty()) {
+                sysCfgRepository.saveAll(migrated);
+                log.info("Migrated {} legacy encrypted configuration value(s) to the envelope format.", migrated.size());
+            }
+        } catch (Exception e) {
+            log.error("Legacy encrypted value migration failed; values stay in their legacy format.", e);
+        }
+    }
+
+    private synchronized void loadSystemConfiguration() {
+        Map<String, String> configMap = new HashMap<>();
+        Map<String, Long> idsByName = new HashMap<>();
+        try {
+            // Lowest id first, like findVineConfigEntries, so duplicates resolve to the same row on every path
+            for (SystemConfigEntity entity : sysCfgRepository.findAll(Sort.by("id"))) {
+                if (entity == null || entity.getSysName() == null) {
+                    continue;
+                }
+                String key = normalizeName(entity.getSysName());
+                if (idsByName.putIfAbsent(key, entity.getId()) != null) {
+                    log.warn("Duplicate configuration key found: {}. Keeping the first value.", key);
+                    continue;
+                }
+                if (entity.getDefaValue() != null && isVineConfig(key)) {
+                    configMap.put(key, entity.getDefaValue());
+                }
+            }
         } catch (Exception e) {
             log.error("Failed to load system configurations from database during initialization. Application may not function correctly.", e);
             throw new IllegalStateException("Failed to load system configuration during startup.", e);
         }
 
+        applySystemConfiguration(configMap);
+
+        configIdsByName.clear();
+        configIdsByName.putAll(idsByName);
+    }
+
+    /**
+     * Builds VineSystemConfig from the vine key/value map and publishes it, without touching the database
+     */
+    private void applySystemConfiguration(Map<String, String> configMap) {
+        VineSystemConfig snapshot = buildConfig(configMap, configVersion.incrementAndGet());
+
+        // Stored secrets may have changed, so cached decryptions are no longer trustworthy
+        decryptionService.invalidateCache();
+
+        published.set(new PublishedConfig(snapshot, Map.copyOf(configMap)));
+
+        log.info("VineSystemConfig version {} initialized successfully.", snapshot.getVersion());
+    }
+
+    private VineSystemConfig buildConfig(Map<String, String> configMap, long version) {
         // Fetch required configs using lowercased raw keys
         String vineChargesFileHeader = getRequiredConfig(configMap, CHARGES_FILE_HEADER_KEY, "Vine Charges File Header");
         String vinePrisonerFileHeader = getRequiredConfig(configMap, PRISONER_FILE_HEADER_KEY, "Vine Prisoner File Header");
@@ -90,9 +211,7 @@ public class SysConfigService {
         String vineNewVineFilePath = getRequiredConfig(configMap, NEW_VINE_FILE_PATH_KEY, "Vine New VINE File Path");
         String vineInterFile = getRequiredConfig(configMap, INTERFILE_NAME_KEY, "VINE Interfile Name");
 
-
-
-        this.vineSystemConfig = new VineSystemConfig(
+        return new VineSystemConfig(
                 vineChargesFileHeader,
                 vinePrisonerFileHeader,
                 vineJailIdNumber,
@@ -106,10 +225,52 @@ public class SysConfigService {
                 VineFtpMugshotFolderName,
                 VineUseSftp,
                 vineNewVineFilePath,
-                vineInterFile
+                vineInterFile,
+                version
         );
+    }
 
-        log.info("VineSystemConfig initialized successfully.");
+    /**
+     * Serializes a pinned snapshot so another node can run with exactly the same configuration (partition leases).
+     * Values are kept as stored in sys_cfg, so the FTP password stays encrypted.
+     */
+    public String exportSnapshot(VineSystemConfig config) {
+        Map<String, String> values = new HashMap<>();
+        values.put(CHARGES_FILE_HEADER_KEY, config.getVineChargesfileheader());
+        values.put(PRISONER_FILE_HEADER_KEY, config.getVinePrisonerfileheader());
+        values.put(JAIL_ID_NUMBER_KEY, config.getVineJailidnumber());
+        values.put(FTP_USERNAME_KEY, config.getVineFtpUserName());
+        values.put(FTP_PASSWORD_KEY, config.getVineFtpPassword());
+        values.put(FTP_PRIMARY_SERVER_KEY, config.getVinePrimaryFtpServerName());
+        values.put(NEW_MUGSHOT_DIR_KEY, config.getVineNewMugShotDirectory());
+        values.put(MUGSHOT_DIR_KEY, config.getVineMugShotDirectory());
+        values.put(FTP_DAT_FOLDER_KEY, config.getVineFtpDatFolderName());
+        values.put(FTP_FIREWALL_PORT_KEY, config.getVineFtpFirewallOutPort());
+        values.put(FTP_MUGSHOT_FOLDER_KEY, config.getVineFtpMugshotFolderName());
+        values.put(FTP_USE_SFTP_KEY, String.valueOf(config.isVineUseSftp()));
+        values.put(NEW_VINE_FILE_PATH_KEY, config.getVineNewVineFilePath());
+        values.put(INTERFILE_NAME_KEY, config.getVineInterFile());
+        try {
+            return SNAPSHOT_MAPPER.writeValueAsString(new ConfigSnapshot(config.getVersion(), values));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Configuration snapshot could not be serialized", e);
+        }
+    }
+
+    /**
+     * Rebuilds a snapshot written by {@link #exportSnapshot}, keeping the version it had on the exporting node.
+     * Nothing is published; this node's own configuration is unchanged.
+     */
+    public VineSystemConfig importSnapshot(String snapshot) {
+        if (snapshot == null || snapshot.isBlank()) {
+            throw new IllegalStateException("No configuration snapshot to import");
+        }
+        try {
+            ConfigSnapshot imported = SNAPSHOT_MAPPER.readValue(snapshot, ConfigSnapshot.class);
+            return buildConfig(imported.values(), imported.version());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Configuration snapshot could not be read", e);
+        }
     }
 
     private boolean parseFlexibleBoolean(String value) {
@@ -127,12 +288,55 @@ public class SysConfigService {
         return value;
     }
 
+    /**
+     * Current configuration snapshot. Snapshots are immutable; a change publishes a new one with a higher version.
+     */
     public VineSystemConfig getConfig() {
-        return vineSystemConfig;
+        return published.get().config();
+    }
+
+    /**
+     * Snapshot for one job run: first checks whether vine keys were changed directly in the database
+     * (at most once per poll interval), then returns the snapshot the whole run should use.
+     */
+    public VineSystemConfig pinConfig() {
+        refreshIfChanged();
+        return getConfig();
+    }
+
+    /**
+     * Cheap version check: compares the fingerprint of the vine rows with the one seen on the last full read, and
+     * only when it differs reads the vine rows and republishes if their values differ from the current snapshot
+     */
+    public void refreshIfChanged() {
+        long now = System.nanoTime();
+        long last = lastPollNanos.get();
+        if (now - last < TimeUnit.SECONDS.toNanos(pollIntervalSeconds) || !lastPollNanos.compareAndSet(last, now)) {
+            return;
+        }
+
+        try {
+            // Read before the rows: a change in between leaves a stale fingerprint, so the next check reads again
+            String fingerprint = readFingerprint();
+            if (fingerprint != null && fingerprint.equals(lastFingerprint.get())) {
+                return;
+            }
+            VineEntries entries = readVineEntries();
+            synchronized (this) {
+                if (!entries.values().equals(published.get().values())) {
+                    log.info("Vine configuration changed in the database, publishing a new snapshot.");
+                }
+                applyVineEntries(entries);
+            }
+            lastFingerprint.set(fingerprint);
+        } catch (Exception e) {
+            log.warn("Configuration version check failed, keeping version {}: {}", getConfig().getVersion(), e.getMessage());
+        }
     }
 
     // CRUD Operations for FTP Configuration
     public FtpConfigDto getFtpConfig() {
+        VineSystemConfig vineSystemConfig = getConfig();
         return new FtpConfigDto(
                 vineSystemConfig.getVineFtpUserName(),
                 vineSystemConfig.getVineFtpPassword(),
@@ -147,19 +351,20 @@ public class SysConfigService {
     @Transactional
     public FtpConfigDto updateFtpConfig(FtpConfigDto ftpConfigDto) {
         try {
-            updateConfigValue(FTP_USERNAME_KEY, ftpConfigDto.getVineFtpUserName());
+            Map<String, String> updates = new LinkedHashMap<>();
+            updates.put(FTP_USERNAME_KEY, ftpConfigDto.getVineFtpUserName());
 
             // ✅ Encrypt before saving
             String encryptedPassword = decryptionService.encrypt(ftpConfigDto.getVineFtpPassword());
-            updateConfigValue(FTP_PASSWORD_KEY, encryptedPassword);
+            updates.put(FTP_PASSWORD_KEY, encryptedPassword);
 
-            updateConfigValue(FTP_PRIMARY_SERVER_KEY, ftpConfigDto.getVinePrimaryFtpServerName());
-            updateConfigValue(FTP_DAT_FOLDER_KEY, ftpConfigDto.getVineFtpDatFolderName());
-            updateConfigValue(FTP_FIREWALL_PORT_KEY, ftpConfigDto.getVineFtpFirewallOutPort());
-            updateConfigValue(FTP_MUGSHOT_FOLDER_KEY, ftpConfigDto.getVineFtpMugshotFolderName());
-            updateConfigValue(FTP_USE_SFTP_KEY, String.valueOf(ftpConfigDto.isVineUseSftp()));
+            updates.put(FTP_PRIMARY_SERVER_KEY, ftpConfigDto.getVinePrimaryFtpServerName());
+            updates.put(FTP_DAT_FOLDER_KEY, ftpConfigDto.getVineFtpDatFolderName());
+            updates.put(FTP_FIREWALL_PORT_KEY, ftpConfigDto.getVineFtpFirewallOutPort());
+            updates.put(FTP_MUGSHOT_FOLDER_KEY, ftpConfigDto.getVineFtpMugshotFolderName());
+            updates.put(FTP_USE_SFTP_KEY, String.valueOf(ftpConfigDto.isVineUseSftp()));
 
-            loadSystemConfiguration();
+            updateConfigValues(updates);
             log.info("FTP configuration updated successfully.");
             return getFtpConfig();
         } catch (Exception e) {
@@ -170,6 +375,7 @@ public class SysConfigService {
 
     // CRUD Operations for File Configuration
     public FileConfigDto getFileConfig() {
+        VineSystemConfig vineSystemConfig = getConfig();
         return new FileConfigDto(
                 vineSystemConfig.getVineChargesfileheader(),
                 vineSystemConfig.getVinePrisonerfileheader(),
@@ -184,16 +390,16 @@ public class SysConfigService {
     @Transactional
     public FileConfigDto updateFileConfig(FileConfigDto fileConfigDto) {
         try {
-            updateConfigValue(CHARGES_FILE_HEADER_KEY, fileConfigDto.getVineChargesFileHeader());
-            updateConfigValue(PRISONER_FILE_HEADER_KEY, fileConfigDto.getVinePrisonerFileHeader());
-            updateConfigValue(JAIL_ID_NUMBER_KEY, fileConfigDto.getVineJailIdNumber());
-            updateConfigValue(NEW_MUGSHOT_DIR_KEY, fileConfigDto.getVineNewMugShotDirectory());
-            updateConfigValue(MUGSHOT_DIR_KEY, fileConfigDto.getVineMugShotDirectory());
-            updateConfigValue(NEW_VINE_FILE_PATH_KEY, fileConfigDto.getVineNewVineFilePath());
-            updateConfigValue(INTERFILE_NAME_KEY, fileConfigDto.getVineInterFile());
-
-            // Reload configuration after update
-            loadSystemConfiguration();
+            Map<String, String> updates = new LinkedHashMap<>();
+            updates.put(CHARGES_FILE_HEADER_KEY, fileConfigDto.getVineChargesFileHeader());
+            updates.put(PRISONER_FILE_HEADER_KEY, fileConfigDto.getVinePrisonerFileHeader());
+            updates.put(JAIL_ID_NUMBER_KEY, fileConfigDto.getVineJailIdNumber());
+            updates.put(NEW_MUGSHOT_DIR_KEY, fileConfigDto.getVineNewMugShotDirectory());
+            updates.put(MUGSHOT_DIR_KEY, fileConfigDto.getVineMugShotDirectory());
+            updates.put(NEW_VINE_FILE_PATH_KEY, fileConfigDto.getVineNewVineFilePath());
+            updates.put(INTERFILE_NAME_KEY, fileConfigDto.getVineInterFile());
+
+            updateConfigValues(updates);
             log.info("File configuration updated successfully.");
             return getFileConfig();
         } catch (Exception e) {
@@ -216,11 +422,18 @@ public class SysConfigService {
     }
 
     public SystemConfigDto getConfigByName(String sysName) {
-        return sysCfgRepository.findAll().stream()
-                .filter(config -> config.getSysName().equalsIgnoreCase(sysName))
-                .findFirst()
-                .map(this::entityToDto)
-                .orElse(null);
+        if (sysName == null) {
+            return null;
+        }
+
+        Long id = configIdsByName.get(normalizeName(sysName));
+        Optional<SystemConfigEntity> entity = id != null
+                ? sysCfgRepository.findById(id)
+                : sysCfgRepository.findFirstBySysNameIgnoreCaseOrderByIdAsc(sysName.trim());
+
+        // Rows added directly in the database are picked up here and indexed for next time
+        entity.ifPresent(e -> configIdsByName.putIfAbsent(normalizeName(e.getSysName()), e.getId()));
+        return entity.map(this::entityToDto).orElse(null);
     }
 
     @Transactional
@@ -232,9 +445,13 @@ public class SysConfigService {
         SystemConfigEntity saved = sysCfgRepository.save(entity);
         log.info("Created new configuration: {}", request.getSysName());
 
-        // Reload configuration if it's a vine-related config
-        if (isVineConfig(request.getSysName())) {
-            loadSystemConfiguration();
+        // An existing row with the same name keeps precedence, matching the load order
+        String name = normalizeName(saved.getSysName());
+        boolean indexed = configIdsByName.putIfAbsent(name, saved.getId()) == null;
+
+        // Refresh the in-memory configuration if it's a vine-related config
+        if (indexed && isVineConfig(name) && saved.getDefaValue() != null) {
+            refreshVineValues(Map.of(name, saved.getDefaValue()), Set.of());
         }
 
         return entityToDto(saved);
@@ -244,15 +461,13 @@ public class SysConfigService {
     public SystemConfigDto updateConfig(Long id, SystemConfigUpdateRequest request) {
         return sysCfgRepository.findById(id)
                 .map(entity -> {
+                    String previousName = entity.getSysName() != null ? normalizeName(entity.getSysName()) : null;
                     entity.setSysName(request.getSysName());
                     entity.setDefaValue(request.getDefaValue());
                     SystemConfigEntity updated = sysCfgRepository.save(entity);
                     log.info("Updated configuration: {} with ID: {}", request.getSysName(), id);
 
-                    // Reload configuration if it's a vine-related config
-                    if (isVineConfig(request.getSysName())) {
-                        loadSystemConfiguration();
-                    }
+                    reindexAfterWrite(previousName, normalizeName(updated.getSysName()));
 
                     return entityToDto(updated);
                 })
@@ -261,25 +476,125 @@ public class SysConfigService {
 
     @Transactional
     public boolean deleteConfig(Long id) {
-        if (sysCfgRepository.existsById(id)) {
-            sysCfgRepository.deleteById(id);
+        Optional<SystemConfigEntity> existing = sysCfgRepository.findById(id);
+        if (existing.isPresent()) {
+            sysCfgRepository.delete(existing.get());
             log.info("Deleted configuration with ID: {}", id);
 
-            // Reload configuration after deletion
-            loadSystemConfiguration();
+            String name = existing.get().getSysName() != null ? normalizeName(existing.get().getSysName()) : null;
+            reindexAfterWrite(name, null);
             return true;
         }
         return false;
     }
 
-    private void updateConfigValue(String key, String value) {
-        sysCfgRepository.findAll().stream()
-                .filter(config -> config.getSysName().equalsIgnoreCase(key))
-                .findFirst()
-                .ifPresent(config -> {
-                    config.setDefaValue(value);
-                    sysCfgRepository.save(config);
-                });
+    /**
+     * Writes several keys with one batched read and one batched save, then refreshes only those keys in memory.
+     * Keys that have no row in sys_cfg are skipped, as before.
+     */
+    private void updateConfigValues(Map<String, String> updates) {
+        Map<Long, String> valuesById = new HashMap<>();
+        updates.forEach((key, value) -> {
+            Long id = configIdsByName.get(normalizeName(key));
+            if (id != null) {
+                valuesById.put(id, value);
+            } else {
+                log.warn("Configuration key '{}' not found; update skipped.", key);
+            }
+        });
+        if (valuesById.isEmpty()) {
+            return;
+        }
+
+        List<SystemConfigEntity> entities = sysCfgRepository.findAllById(valuesById.keySet());
+        Map<String, String> changed = new HashMap<>();
+        for (SystemConfigEntity entity : entities) {
+            String value = valuesById.get(entity.getId());
+            entity.setDefaValue(value);
+            if (value != null) {
+                changed.put(normalizeName(entity.getSysName()), value);
+            }
+        }
+        sysCfgRepository.saveAll(entities);
+
+        refreshVineValues(changed, Set.of());
+    }
+
+    /**
+     * After a row was renamed, changed or deleted: another row with the same name may now be the one that counts.
+     * Vine names are rebuilt from findVineConfigEntries, as on a version check; other names are dropped from the
+     * index and resolved again (lowest id first) on their next lookup.
+     */
+    private void reindexAfterWrite(String previousName, String newName) {
+        boolean vine = false;
+        for (String name : new String[]{previousName, newName}) {
+            if (name == null) {
+                continue;
+            }
+            if (isVineConfig(name)) {
+                vine = true;
+            } else {
+                configIdsByName.remove(name);
+            }
+        }
+        if (vine) {
+            VineEntries entries = readVineEntries();
+            synchronized (this) {
+                applyVineEntries(entries);
+            }
+        }
+    }
+
+    private String readFingerprint() {
+        if (fingerprintSql.isBlank()) {
+            return null;
+        }
+        return jdbcTemplate.query(fingerprintSql, rs -> rs.next() ? rs.getLong(1) + ":" + rs.getString(2) : null);
+    }
+
+    private VineEntries readVineEntries() {
+        Map<String, Long> idsByName = new HashMap<>();
+        Map<String, String> values = new HashMap<>();
+        for (SystemConfigEntity entity : sysCfgRepository.findVineConfigEntries()) {
+            String key = normalizeName(entity.getSysName());
+            if (!isVineConfig(key) || idsByName.putIfAbsent(key, entity.getId()) != null) {
+                continue;
+            }
+            if (entity.getDefaValue() != null) {
+                values.put(key, entity.getDefaValue());
+            }
+        }
+        return new VineEntries(idsByName, values);
+    }
+
+    /**
+     * Replaces the vine part of the name index and publishes a new snapshot if the values differ. Caller holds
+     * the lock.
+     */
+    private void applyVineEntries(VineEntries entries) {
+        configIdsByName.keySet().removeIf(name -> isVineConfig(name) && !entries.idsByName().containsKey(name));
+        configIdsByName.putAll(entries.idsByName());
+        if (!entries.values().equals(published.get().values())) {
+            applySystemConfiguration(entries.values());
+        }
+    }
+
+    /**
+     * Applies changed/removed vine keys to the current values and rebuilds VineSystemConfig
+     */
+    private synchronized void refreshVineValues(Map<String, String> changed, Set<String> removed) {
+        Map<String, String> values = new HashMap<>(published.get().values());
+        removed.forEach(values::remove);
+        changed.forEach((key, value) -> {
+            if (isVineConfig(key)) {
+                values.put(key, value);
+            }
+        });
+        applySystemConfiguration(values);
+    }
+
+    private String normalizeName(String sysName) {
+        return sysName.toLowerCase().trim();
     }
 
     private boolean isVineConfig(String sysName) {
@@ -4,6 +4,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import vine.vine.domain.dto.response.ReferenceDataCacheStatsDto;
 import vine.vine.domain.dto.response.Systab1Response;
 import vine.vine.repository.Systab1Repository;
 import vine.vine.service.Systab1Service;
@@ -15,10 +17,35 @@ import java.util.List;
 public class Systab1ServiceImpl implements Systab1Service {
 
     private final Systab1Repository systab1repo;
+    private final ReferenceDataCache referenceDataCache;
 
     @Override
+    @Transactional(readOnly = true)
     public Page<Systab1Response> getAllSystab1(Pageable pageable) {
         return systab1repo.findAll(pageable)
                 .map(Systab1Response::from);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Systab1Response> getCodeTable(String codeKey) {
+        return referenceDataCache.findAll(codeKey).stream()
+                .map(Systab1Response::from)
+                .toList();
+    }
+
+    @Override
+    public ReferenceDataCacheStatsDto getCacheStats() {
+        return referenceDataCache.getStats();
+    }
+
+    // null clears every cached code table
+    @Override
+    public void invalidateCache(String codeKey) {
+        if (codeKey == null || codeKey.isBlank()) {
+            referenceDataCache.invalidateAll();
+        } else {
+            referenceDataCache.invalidate(codeKey);
+        }
+    }
 }
@@ -4,11 +4,22 @@ import com.jcraft.jsch.*;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import vine.vine.domain.VineSystemConfig;
+import vine.vine.service.RunMetrics;
+
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.zip.GZIPOutputStream;
 
 
 @Service
@@ -19,10 +30,20 @@ public class TransferService {
     private final DecryptionService decryptionService;
     private static final Logger logger = LoggerFactory.getLogger(TransferService.class);
 
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    // Gzip the DAT file on the wire (uploaded as <name>.gz) for receivers that accept it
+    @Value("${vine.transfer.compress-dat:false}")
+    private boolean compressDat;
+
     public boolean ftpDataAndMugshotFiles() {
+        return ftpDataAndMugshotFiles(vineConfig.pinConfig());
+    }
 
-        String datDirectory  = vineConfig.getConfig().getVineNewVineFilePath();
-         String datFileName = vineConfig.getConfig().getVineInterFile();
+    public boolean ftpDataAndMugshotFiles(VineSystemConfig config) {
+
+        String datDirectory  = config.getVineNewVineFilePath();
+         String datFileName = config.getVineInterFile();
           String localDatFilePath = Paths.get(datDirectory, datFileName).toString();
 
         if (localDatFilePath == null || localDatFilePath.isBlank()) {
@@ -36,35 +57,51 @@ public class TransferService {
             return false;
         }
 
-        String remoteDatDir = vineConfig.getConfig().getVineFtpDatFolderName().trim();
-        boolean datUploaded = uploadFile(localDatFilePath, remoteDatDir);
+        String remoteDatDir = config.getVineFtpDatFolderName().trim();
+        boolean datUploaded = uploadDatFile(localDatFilePath, remoteDatDir, config);
 
         if (datUploaded) {
             logger.info("DAT file uploaded. Proceeding with mugshot transfer...");
-            return uploadMugshots();
+            return uploadMugshots(config);
         } else {
             logger.error("DAT file upload failed. Skipping mugshot upload.");
             return false;
         }
     }
 
-    public boolean uploadFile(String localPath, String remoteDir) {
-        if (vineConfig.getConfig().isVineUseSftp()) {
-            return uploadSftp(localPath, remoteDir);
+    public boolean uploadFile(String localPath, String remoteDir, VineSystemConfig config) {
+        if (config.isVineUseSftp()) {
+            return uploadSftp(localPath, remoteDir, false, config);
+        } else {
+            logger.warn("FTP upload is not yet implemented");
+            return false;
+        }
+    }
+
+    /**
+     * Uploads the DAT file, gzip-compressing it while streaming when vine.transfer.compress-dat is set.
+     * Mugshots are already JPEG-compressed and always go through {@link #uploadFile}.
+     */
+    public boolean uploadDatFile(String localPath, String remoteDir, VineSystemConfig config) {
+        if (!compressDat) {
+            return uploadFile(localPath, remoteDir, config);
+        }
+        if (config.isVineUseSftp()) {
+            return uploadSftp(localPath, remoteDir, true, config);
         } else {
             logger.warn("FTP upload is not yet implemented");
             return false;
         }
     }
 
-    private boolean uploadSftp(String localPath, String remoteDir) {
+    private boolean uploadSftp(String localPath, String remoteDir, boolean compress, VineSystemConfig config) {
         Session session = null;
         ChannelSftp sftp = null;
 
-        String username = vineConfig.getConfig().getVineFtpUserName().trim();
-        String password = decryptionService.decrypt(vineConfig.getConfig().getVineFtpPassword().trim());
-        String host = vineConfig.getConfig().getVinePrimaryFtpServerName().trim();
-        int port = resolvePort(vineConfig.getConfig().getVineFtpFirewallOutPort(), 22);
+        String username = config.getVineFtpUserName().trim();
+        String password = decryptionService.decrypt(config.getVineFtpPassword().trim());
+        String host = config.getVinePrimaryFtpServerName().trim();
+        int port = resolvePort(config.getVineFtpFirewallOutPort(), 22);
 
         Path sourcePath = Paths.get(localPath);
         String fileName = sourcePath.getFileName().toString();
@@ -75,18 +112,25 @@ public class TransferService {
             session = jsch.getSession(username, host, port);
             session.setPassword(password);
 
-            java.util.Properties config = new java.util.Properties();
-            config.put("StrictHostKeyChecking", "no");
-            session.setConfig(config);
+            java.util.Properties sessionConfig = new java.util.Properties();
+            sessionConfig.put("StrictHostKeyChecking", "no");
+            session.setConfig(sessionConfig);
             session.connect(5000);
 
             Channel channel = session.openChannel("sftp");
             channel.connect();
             sftp = (ChannelSftp) channel;
 
+            if (compress) {
+                long sentBytes = putCompressed(sftp, sourcePath, remotePath + ".gz");
+                recordUpload(sentBytes);
+                return true;
+            }
+
             try (FileInputStream fis = new FileInputStream(localPath)) {
                 sftp.put(fis, remotePath);
                 logger.info("Uploaded {} to {}", fileName, remotePath);
+                recordUpload(Files.size(sourcePath));
                 return true;
             }
 
@@ -100,9 +144,43 @@ public class TransferService {
         }
     }
 
-    public boolean uploadMugshots() {
-        String mugshotDir = vineConfig.getConfig().getVineNewMugShotDirectory();
-        String remoteDir = vineConfig.getConfig().getVineFtpMugshotFolderName();
+    private static void recordUpload(long bytes) {
+        RunMetrics.current().addFiles(RunMetrics.Stage.UPLOAD, 1);
+        RunMetrics.current().addBytes(RunMetrics.Stage.UPLOAD, bytes);
+    }
+
+    /**
+     * Streams the file through gzip straight into the SFTP channel, so no compressed copy is written locally,
+     * and logs the compression ratio and the CPU time spent compressing.
+     *
+     * @return bytes sent over the wire
+     */
+    private long putCompressed(ChannelSftp sftp, Path sourcePath, String remotePath) throws SftpException, IOException {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        boolean cpuTimeSupported = threadBean.isCurrentThreadCpuTimeSupported();
+        long cpuStart = cpuTimeSupported ? threadBean.getCurrentThreadCpuTime() : 0L;
+        long wallStart = System.nanoTime();
+
+        long rawBytes;
+        CountingOutputStream wireStream = new CountingOutputStream(sftp.put(remotePath));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(wireStream, GZIP_BUFFER_SIZE)) {
+            rawBytes = Files.copy(sourcePath, gzip);
+        }
+
+        long compressedBytes = wireStream.getCount();
+        long cpuMs = cpuTimeSupported ? (threadBean.getCurrentThreadCpuTime() - cpuStart) / 1_000_000 : -1;
+        long wallMs = (System.nanoTime() - wallStart) / 1_000_000;
+        double ratio = compressedBytes > 0 ? (double) rawBytes / compressedBytes : 0.0;
+
+        logger.info("Uploaded {} to {} (gzip): {} -> {} bytes, ratio {}:1, cpu {} ms, wall {} ms",
+                sourcePath.getFileName(), remotePath, rawBytes, compressedBytes,
+                String.format("%.1f", ratio), cpuMs, wallMs);
+        return compressedBytes;
+    }
+
+    public boolean uploadMugshots(VineSystemConfig config) {
+        String mugshotDir = config.getVineNewMugShotDirectory();
+        String remoteDir = config.getVineFtpMugshotFolderName();
 
         File dir = new File(mugshotDir);
         if (!dir.exists() || !dir.isDirectory()) {
@@ -118,7 +196,7 @@ public class TransferService {
 
         boolean allSuccess = true;
         for (File mugshot : mugshots) {
-            boolean uploaded = uploadFile(mugshot.getAbsolutePath(), remoteDir);
+            boolean uploaded = uploadFile(mugshot.getAbsolutePath(), remoteDir, config);
             if (!uploaded) {
                 logger.error("Failed to upload mugshot: {}", mugshot.getName());
                 allSuccess = false;
@@ -134,4 +212,28 @@ public class TransferService {
             return defaultPort;
         }
     }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
 }
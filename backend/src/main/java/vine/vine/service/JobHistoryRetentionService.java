@@ -0,0 +1,121 @@
+package vine.vine.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+import vine.vine.domain.JobExecutionDailySummaryEntity;
+import vine.vine.repository.JobExecutionDailySummaryRepository;
+import vine.vine.repository.JobExecutionHistoryRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keeps job_execution_history bounded. Raw rows older than the retention horizon are rolled up into one
+ * job_execution_daily_summary row per job and day, then deleted. Each day is rolled up and pruned in its own
+ * transaction so a large backlog never holds locks on the history table for long.
+ */
+@Service
+@Slf4j
+public class JobHistoryRetentionService {
+
+    private final JobExecutionHistoryRepository jobHistoryRepository;
+    private final JobExecutionDailySummaryRepository summaryRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${vine.history.retention-days:90}")
+    private int retentionDays;
+
+    public JobHistoryRetentionService(JobExecutionHistoryRepository jobHistoryRepository,
+                                      JobExecutionDailySummaryRepository summaryRepository,
+                                      PlatformTransactionManager transactionManager) {
+        this.jobHistoryRepository = jobHistoryRepository;
+        this.summaryRepository = summaryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public int getRetentionDays() {
+        return retentionDays;
+    }
+
+    /**
+     * Rolls up and prunes every day before the retention horizon.
+     *
+     * @return number of raw history rows deleted
+     */
+    public int rollUpAndPrune() {
+        LocalDate horizon = LocalDate.now().minusDays(retentionDays);
+        LocalDateTime oldest = jobHistoryRepository.findOldestStartTimeBefore(horizon.atStartOfDay());
+        if (oldest == null) {
+            log.info("🧹 History retention: nothing older than {}", horizon);
+            return 0;
+        }
+
+        int deleted = 0;
+        int days = 0;
+        for (LocalDate day = oldest.toLocalDate(); day.isBefore(horizon); day = day.plusDays(1)) {
+            LocalDate current = day;
+            Integer rows = transactionTemplate.execute(status -> rollUpDay(current));
+            if (rows != null && rows > 0) {
+                deleted += rows;
+                days++;
+            }
+        }
+
+        log.info("🧹 History retention: rolled up {} day(s), deleted {} raw row(s) older than {}", days, deleted, horizon);
+        return deleted;
+    }
+
+    private int rollUpDay(LocalDate day) {
+        LocalDateTime from = day.atStartOfDay();
+        LocalDateTime to = day.plusDays(1).atStartOfDay();
+
+        List<JobExecutionHistoryRepository.DailyRollup> rollups = jobHistoryRepository.rollUpRange(from, to);
+        if (rollups.isEmpty()) {
+            return 0;
+        }
+
+        for (JobExecutionHistoryRepository.DailyRollup rollup : rollups) {
+            JobExecutionDailySummaryEntity summary = summaryRepository
+                    .findByJobNameAndJobGroupAndSummaryDate(rollup.getJobName(), rollup.getJobGroup(), day)
+                    .orElseGet(() -> newSummary(rollup.getJobName(), rollup.getJobGroup(), day));
+            merge(summary, rollup);
+            summaryRepository.save(summary);
+        }
+
+        return jobHistoryRepository.deleteByStartTimeRange(from, to);
+    }
+
+    private JobExecutionDailySummaryEntity newSummary(String jobName, String jobGroup, LocalDate day) {
+        JobExecutionDailySummaryEntity summary = new JobExecutionDailySummaryEntity();
+        summary.setJobName(jobName);
+        summary.setJobGroup(jobGroup);
+        summary.setSummaryDate(day);
+        return summary;
+    }
+
+    // Late rows for a day that was already summarized are folded into the existing row
+    private void merge(JobExecutionDailySummaryEntity summary, JobExecutionHistoryRepository.DailyRollup rollup) {
+        summary.setExecutionCount(summary.getExecutionCount() + rollup.getExecutions());
+        summary.setSuccessCount(summary.getSuccessCount() + rollup.getSuccessful());
+        summary.setFailureCount(summary.getFailureCount() + rollup.getFailed());
+        summary.setRecordsProcessed(summary.getRecordsProcessed() + rollup.getRecordsProcessed());
+
+        if (rollup.getDurationSamples() == 0) {
+            return;
+        }
+        long samples = summary.getDurationSamples() + rollup.getDurationSamples();
+        double existingTotal = summary.getAvgDurationMs() != null ? summary.getAvgDurationMs() * (double) summary.getDurationSamples() : 0;
+        double addedTotal = rollup.getAvgDurationMs() * rollup.getDurationSamples();
+        summary.setAvgDurationMs(Math.round((existingTotal + addedTotal) / samples));
+        summary.setDurationSamples(samples);
+        summary.setMinDurationMs(summary.getMinDurationMs() == null
+                ? rollup.getMinDurationMs() : Math.min(summary.getMinDurationMs(), rollup.getMinDurationMs()));
+        summary.setMaxDurationMs(summary.getMaxDurationMs() == null
+                ? rollup.getMaxDurationMs() : Math.max(summary.getMaxDurationMs(), rollup.getMaxDurationMs()));
+    }
+}
@@ -0,0 +1,219 @@
+package vine.vine.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Wall time and volume per pipeline stage of one job run. A run binds its collector to the executing thread with
+ * {@link #start()}; code along the pipeline records into {@link #current()}, which is a no-op outside a run.
+ * Partition threads collect separately and the coordinator {@link #merge}s their figures.
+ */
+public class RunMetrics {
+
+    public enum Stage {
+        FETCH, LOOKUP, MUGSHOT, WRITE, UPLOAD
+    }
+
+    private static final ThreadLocal<RunMetrics> CURRENT = new ThreadLocal<>();
+    private static final RunMetrics DISABLED = new RunMetrics(false);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final boolean enabled;
+    private final Map<Stage, StageMetrics> stages = new EnumMap<>(Stage.class);
+    private Stage activeStage;
+
+    private RunMetrics(boolean enabled) {
+        this.enabled = enabled;
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, new StageMetrics());
+        }
+    }
+
+    public static RunMetrics start() {
+        RunMetrics metrics = new RunMetrics(true);
+        CURRENT.set(metrics);
+        return metrics;
+    }
+
+    public static RunMetrics current() {
+        RunMetrics metrics = CURRENT.get();
+        return metrics != null ? metrics : DISABLED;
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Times a stage until the returned handle is closed; queries issued meanwhile are attributed to it
+     */
+    public StageTimer stage(Stage stage) {
+        return new StageTimer(stage);
+    }
+
+    public Stage getActiveStage() {
+        return activeStage;
+    }
+
+    public void addRows(Stage stage, long rows) {
+        if (enabled) stages.get(stage).rows.addAndGet(rows);
+    }
+
+    public void addQueries(Stage stage, long queries) {
+        if (enabled) stages.get(stage).queries.addAndGet(queries);
+    }
+
+    public void addBytes(Stage stage, long bytes) {
+        if (enabled) stages.get(stage).bytes.addAndGet(bytes);
+    }
+
+    public void addFiles(Stage stage, long files) {
+        if (enabled) stages.get(stage).files.addAndGet(files);
+    }
+
+    public void addJdbcRows(Stage stage, long jdbcRows) {
+        if (enabled) stages.get(stage).jdbcRows.addAndGet(jdbcRows);
+    }
+
+    public void addEntities(Stage stage, long entities) {
+        if (enabled) stages.get(stage).entities.addAndGet(entities);
+    }
+
+    /**
+     * Statements executed over all stages
+     */
+    public long getTotalQueries() {
+        return stages.values().stream().mapToLong(figures -> figures.queries.get()).sum();
+    }
+
+    public long getTotalJdbcRows() {
+        return stages.values().stream().mapToLong(figures -> figures.jdbcRows.get()).sum();
+    }
+
+    public long getTotalEntities() {
+        return stages.values().stream().mapToLong(figures -> figures.entities.get()).sum();
+    }
+
+    /**
+     * Bookings the run extracted: the rows of the roster fetch
+     */
+    public long getBookings() {
+        return stages.get(Stage.FETCH).rows.get();
+    }
+
+    /**
+     * One-line run totals for the log, per booking where it applies
+     */
+    public String summary() {
+        long bookings = getBookings();
+        return String.format("%d bookings, %d statements (%.2f per booking), %d entities loaded, %d JDBC rows (%.1f per booking)",
+                bookings, getTotalQueries(), perBooking(getTotalQueries(), bookings), getTotalEntities(),
+                getTotalJdbcRows(), perBooking(getTotalJdbcRows(), bookings));
+    }
+
+    private static double perBooking(long value, long bookings) {
+        return bookings > 0 ? (double) value / bookings : 0;
+    }
+
+    public void merge(RunMetrics other) {
+        if (!enabled || other == null) {
+            return;
+        }
+        other.stages.forEach((stage, figures) -> stages.get(stage).add(figures));
+    }
+
+    /**
+     * JSON object keyed by stage name, e.g.
+     * {"fetch":{"wallMs":12,"rows":340,"queries":1,"bytes":0,"files":0,"jdbcRows":340,"entities":0},...}
+     */
+    public String toJson() {
+        Map<String, Map<String, Long>> json = new LinkedHashMap<>();
+        stages.forEach((stage, figures) -> json.put(stage.name().toLowerCase(), figures.toMap()));
+        try {
+            return MAPPER.writeValueAsString(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize run metrics", e);
+        }
+    }
+
+    public static RunMetrics fromJson(String json) {
+        RunMetrics metrics = new RunMetrics(true);
+        try {
+            Map<String, Map<String, Long>> parsed = MAPPER.readValue(json, new TypeReference<>() {});
+            parsed.forEach((name, figures) -> metrics.stages.get(Stage.valueOf(name.toUpperCase())).add(figures));
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid run metrics: " + json, e);
+        }
+        return metrics;
+    }
+
+    public class StageTimer implements AutoCloseable {
+        private final Stage stage;
+        private final Stage previous;
+        private final long started = System.nanoTime();
+
+        private StageTimer(Stage stage) {
+            this.stage = stage;
+            this.previous = activeStage;
+            if (enabled) {
+                activeStage = stage;
+            }
+        }
+
+        @Override
+        public void close() {
+            if (enabled) {
+                activeStage = previous;
+                stages.get(stage).wallNanos.addAndGet(System.nanoTime() - started);
+            }
+        }
+    }
+
+    private static class StageMetrics {
+        private final AtomicLong wallNanos = new AtomicLong();
+        private final AtomicLong rows = new AtomicLong();
+        private final AtomicLong queries = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+        private final AtomicLong files = new AtomicLong();
+        private final AtomicLong jdbcRows = new AtomicLong();
+        private final AtomicLong entities = new AtomicLong();
+
+        private void add(StageMetrics other) {
+            wallNanos.addAndGet(other.wallNanos.get());
+            rows.addAndGet(other.rows.get());
+            queries.addAndGet(other.queries.get());
+            bytes.addAndGet(other.bytes.get());
+            files.addAndGet(other.files.get());
+            jdbcRows.addAndGet(other.jdbcRows.get());
+            entities.addAndGet(other.entities.get());
+        }
+
+        private void add(Map<String, Long> figures) {
+            wallNanos.addAndGet(figures.getOrDefault("wallMs", 0L) * 1_000_000);
+            rows.addAndGet(figures.getOrDefault("rows", 0L));
+            queries.addAndGet(figures.getOrDefault("queries", 0L));
+            bytes.addAndGet(figures.getOrDefault("bytes", 0L));
+            files.addAndGet(figures.getOrDefault("files", 0L));
+            jdbcRows.addAndGet(figures.getOrDefault("jdbcRows", 0L));
+            entities.addAndGet(figures.getOrDefault("entities", 0L));
+        }
+
+        private Map<String, Long> toMap() {
+            Map<String, Long> map = new LinkedHashMap<>();
+            map.put("wallMs", wallNanos.get() / 1_000_000);
+            map.put("rows", rows.get());
+            map.put("queries", queries.get());
+            map.put("bytes", bytes.get());
+            map.put("files", files.get());
+            map.put("jdbcRows", jdbcRows.get());
+            map.put("entities", entities.get());
+            return map;
+        }
+    }
+}
@@ -2,25 +2,35 @@ package vine.vine.service;
 
 import org.quartz.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import vine.vine.domain.JobExecutionDailySummaryEntity;
 import vine.vine.domain.JobExecutionHistoryEntity;
+import vine.vine.domain.JobWatermarkEntity;
 import vine.vine.domain.SchedulerConfigEntity;
 import vine.vine.domain.dto.response.JobExecutionDto;
+import vine.vine.domain.dto.response.JobExecutionSummaryDto;
 import vine.vine.domain.dto.response.SchedulerHistoryResponse;
 import vine.vine.domain.dto.response.SchedulerStatusDto;
+import vine.vine.repository.JobExecutionDailySummaryRepository;
 import vine.vine.repository.JobExecutionHistoryRepository;
+import vine.vine.repository.JobWatermarkRepository;
 import vine.vine.repository.SchedulerConfigRepository;
 import vine.vine.scheduler.BookingProcessorJob;
+import vine.vine.scheduler.ChangeProbeJob;
+import vine.vine.scheduler.HistoryRetentionJob;
+import vine.vine.scheduler.ReleaseFastLaneJob;
+import java.nio.charset.StandardCharsets;
 import java.time.ZoneId;
+import java.util.Base64;
 import java.util.List;
 import jakarta.annotation.PostConstruct;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -38,12 +48,50 @@ public class SchedulerService {
 
     private final JobExecutionHistoryRepository jobHistoryRepository;
     private final SchedulerConfigRepository schedulerConfigRepository;
+    private final JobWatermarkRepository watermarkRepository;
+    private final JobExecutionDailySummaryRepository summaryRepository;
+
+    @Value("${vine.scheduler.clustered:false}")
+    private boolean clustered;
+
+    @Value("${vine.history.retention-enabled:true}")
+    private boolean retentionEnabled;
+
+    @Value("${vine.history.retention-cron:0 30 2 * * ?}")
+    private String retentionCron;
+
+    // Range of the daily summaries returned with a history request that names no days
+    @Value("${vine.history.summary-days:365}")
+    private int summaryDays;
+
+    @Value("${vine.probe.enabled:false}")
+    private boolean probeEnabled;
+
+    @Value("${vine.probe.interval-seconds:5}")
+    private int probeIntervalSeconds;
+
+    @Value("${vine.fastlane.enabled:false}")
+    private boolean fastLaneEnabled;
+
+    @Value("${vine.fastlane.interval-seconds:15}")
+    private int fastLaneIntervalSeconds;
 
     private static final String JOB_NAME = "bookingProcessorJob";
     private static final String JOB_GROUP = "vine-group";
     private static final String TRIGGER_NAME = "bookingProcessorTrigger";
     private static final String TRIGGER_GROUP = "vine-group";
     private static final String CONFIG_NAME = "booking-processor";
+    private static final String RETENTION_JOB_NAME = "historyRetentionJob";
+    private static final String RETENTION_TRIGGER_NAME = "historyRetentionTrigger";
+    private static final String PROBE_JOB_NAME = "changeProbeJob";
+    private static final String PROBE_TRIGGER_NAME = "changeProbeTrigger";
+    private static final String FAST_LANE_TRIGGER_NAME = "releaseFastLaneTrigger";
+
+    // Lower bound for history queries without a days filter
+    private static final LocalDateTime HISTORY_EPOCH = LocalDateTime.of(1900, 1, 1, 0, 0);
+
+    // Watermark partition used by unpartitioned runs
+    public static final String DEFAULT_PARTITION = "ALL";
 
    @PostConstruct
 public void initializeSchedulerConfig() {
@@ -55,6 +103,11 @@ public void initializeSchedulerConfig() {
             return;
         }
 
+        if (clustered) {
+            initializeClusterNode();
+            return;
+        }
+
         // ✅ CLEAN QUARTZ TABLES FIRST - BEFORE STARTING SCHEDULER
         cleanQuartzTables();
 
@@ -92,6 +145,11 @@ public void initializeSchedulerConfig() {
         
         // ✅ ENSURE JOB IS REGISTERED BUT NOT SCHEDULED
         ensureJobIsRegistered();
+
+        // ✅ HOUSEKEEPING RUNS ON ITS OWN CRON, INDEPENDENT OF THE MANUAL START
+        // (the change probe is the booking trigger when enabled, so it only starts with the scheduler)
+        scheduleRetentionJob();
+        scheduleFastLaneJob();
         
         log.info("✅ Scheduler initialization complete - Ready for MANUAL START via frontend");
         
@@ -100,6 +158,65 @@ public void initializeSchedulerConfig() {
     }
 }
 
+/**
+ * Clustered startup. Quartz state lives in the shared job store and peers may be running, so nothing is wiped
+ * and the persisted enabled flag is kept. The booking trigger is only recreated when the configuration says the
+ * scheduler is enabled and no node has it scheduled, e.g. after the whole cluster was down and the trigger
+ * expired or the tables were recreated.
+ */
+private void initializeClusterNode() throws SchedulerException {
+    log.info("🔗 Clustered mode - keeping persisted Quartz state");
+
+    SchedulerConfigEntity config = schedulerConfigRepository.findById(CONFIG_NAME).orElseGet(() -> {
+        log.info("🆕 Creating new scheduler configuration in DISABLED state");
+        SchedulerConfigEntity created = new SchedulerConfigEntity();
+        created.setConfigName(CONFIG_NAME);
+        created.setEnabled(false);
+        created.setIntervalMinutes(30);
+        created.setStartFromTime(LocalDateTime.now().minusDays(30));
+        return schedulerConfigRepository.save(created);
+    });
+
+    if (scheduler != null && !scheduler.isStarted()) {
+        scheduler.start();
+        log.info("✅ Quartz scheduler joined cluster as {}", scheduler.getSchedulerInstanceId());
+    }
+
+    ensureJobIsRegistered();
+    scheduleRetentionJob();
+    scheduleFastLaneJob();
+
+    if (scheduler == null) {
+        return;
+    }
+    // vine.probe.enabled may have changed since the cluster was last up; only one trigger drives booking runs
+    TriggerKey inactiveKey = probeEnabled
+            ? TriggerKey.triggerKey(TRIGGER_NAME, TRIGGER_GROUP)
+            : TriggerKey.triggerKey(PROBE_TRIGGER_NAME, TRIGGER_GROUP);
+    if (scheduler.unscheduleJob(inactiveKey)) {
+        log.info("🛑 Removed {}, booking runs are now driven by {}", inactiveKey.getName(), activeTriggerKey().getName());
+    }
+
+    TriggerKey triggerKey = activeTriggerKey();
+    boolean scheduled = scheduler.checkExists(triggerKey);
+    if (config.isEnabled() && !scheduled) {
+        if (probeEnabled) {
+            scheduleChangeProbeJob();
+        } else {
+            try {
+                scheduler.scheduleJob(buildBookingTrigger(config.getIntervalMinutes()));
+                log.info("✅ Booking trigger restored with {} minute intervals", config.getIntervalMinutes());
+            } catch (ObjectAlreadyExistsException e) {
+                log.info("ℹ️ Booking trigger already restored by a peer node");
+            }
+        }
+    } else if (!config.isEnabled() && scheduled) {
+        scheduler.unscheduleJob(triggerKey);
+        log.info("🛑 Removed {} left behind while the scheduler is disabled", triggerKey.getName());
+    }
+    log.info("✅ Cluster node ready - scheduler {}", config.isEnabled() ? "ENABLED" : "DISABLED");
+}
+
 /**
  * ✅ NEW METHOD: Clean all Quartz tables to prevent auto-recovery
  */
@@ -156,7 +273,7 @@ private void ensureJobIsRegistered() {
                     .withIdentity(JOB_NAME, JOB_GROUP)
                     .withDescription("Job to process bookings - Manual start only")
                     .storeDurably(true) // ✅ Important: allows job to exist without trigger
-                    .requestRecovery(false) // ✅ Don't auto-recover on startup
+                    .requestRecovery(clustered) // ✅ Only a peer node recovers a crashed run
                     .build();
         }
 
@@ -168,6 +285,91 @@ private void ensureJobIsRegistered() {
     }
 }
 
+private void scheduleRetentionJob() {
+    if (scheduler == null || !retentionEnabled) {
+        log.info("ℹ️ History retention job not scheduled (enabled={})", retentionEnabled);
+        return;
+    }
+    try {
+        JobDetail jobDetail = JobBuilder.newJob(HistoryRetentionJob.class)
+                .withIdentity(RETENTION_JOB_NAME, JOB_GROUP)
+                .withDescription("Rolls up and prunes job execution history past the retention horizon")
+                .storeDurably(true)
+                .build();
+
+        Trigger trigger = TriggerBuilder.newTrigger()
+                .withIdentity(RETENTION_TRIGGER_NAME, TRIGGER_GROUP)
+                .forJob(jobDetail)
+                .withSchedule(CronScheduleBuilder.cronSchedule(retentionCron)
+                        .withMisfireHandlingInstructionDoNothing())
+                .build();
+
+        scheduler.scheduleJob(jobDetail, java.util.Set.of(trigger), true);
+        log.info("✅ History retention job scheduled: {}", retentionCron);
+    } catch (Exception e) {
+        log.error("❌ Error scheduling history retention job", e);
+    }
+}
+
+private void scheduleChangeProbeJob() {
+    schedulePollingJob(ChangeProbeJob.class, PROBE_JOB_NAME, PROBE_TRIGGER_NAME,
+            "Triggers the booking job when the source tables change", probeIntervalSeconds);
+}
+
+/**
+ * The trigger that drives booking runs while the scheduler is started: the change probe when it is enabled,
+ * otherwise the fixed interval trigger
+ */
+private TriggerKey activeTriggerKey() {
+    return probeEnabled
+            ? TriggerKey.triggerKey(PROBE_TRIGGER_NAME, TRIGGER_GROUP)
+            : TriggerKey.triggerKey(TRIGGER_NAME, TRIGGER_GROUP);
+}
+
+private void scheduleFastLaneJob() {
+    if (fastLaneEnabled) {
+        schedulePollingJob(ReleaseFastLaneJob.class, ReleaseFastLaneJob.JOB_NAME, FAST_LANE_TRIGGER_NAME,
+                "Ships newly released bookings ahead of the full-roster run", fastLaneIntervalSeconds);
+    }
+}
+
+private void schedulePollingJob(Class<? extends Job> jobClass, String jobName, String triggerName,
+                                String description, int intervalSeconds) {
+    if (scheduler == null) {
+        return;
+    }
+    try {
+        JobKey jobKey = new JobKey(jobName, JOB_GROUP);
+        TriggerKey triggerKey = TriggerKey.triggerKey(triggerName, TRIGGER_GROUP);
+        // Keep the persisted job state of a running cluster
+        if (scheduler.checkExists(jobKey) && scheduler.checkExists(triggerKey)) {
+            log.info("ℹ️ {} already scheduled", jobName);
+            return;
+        }
+
+        JobDetail jobDetail = JobBuilder.newJob(jobClass)
+                .withIdentity(jobKey)
+                .withDescription(description)
+                .storeDurably(true)
+                .build();
+
+        Trigger trigger = TriggerBuilder.newTrigger()
+                .withIdentity(triggerKey)
+                .forJob(jobDetail)
+                .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                        .withIntervalInSeconds(intervalSeconds)
+                        .repeatForever()
+                        .withMisfireHandlingInstructionNextWithRemainingCount())
+                .startNow()
+                .build();
+
+        scheduler.scheduleJob(jobDetail, java.util.Set.of(trigger), true);
+        log.info("✅ {} scheduled every {} seconds", jobName, intervalSeconds);
+    } catch (Exception e) {
+        log.error("❌ Error scheduling {}", jobName, e);
+    }
+}
+
     @Transactional
     public SchedulerStatusDto startScheduler(int intervalMinutes) {
         try {
@@ -193,27 +395,30 @@ private void ensureJobIsRegistered() {
             // ✅ Ensure job is registered
             ensureJobIsRegistered();
             
-            // ✅ Create and schedule trigger
-            Trigger trigger = TriggerBuilder.newTrigger()
-                .withIdentity(TRIGGER_NAME, TRIGGER_GROUP)
-                .forJob(JOB_NAME, JOB_GROUP)
-                .withSchedule(SimpleScheduleBuilder.simpleSchedule()
-                    .withIntervalInMinutes(intervalMinutes)
-                    .repeatForever())
-                .startNow() // ✅ Start immediately when manually triggered
-                .build();
-
-            if (scheduler != null) {
-                scheduler.scheduleJob(trigger);
-                log.info("✅ Trigger scheduled successfully");
-            }
-            
             // ✅ Update configuration
             SchedulerConfigEntity config = getSchedulerConfig();
             config.setEnabled(true);
             config.setIntervalMinutes(intervalMinutes);
             config.setLastStartTime(LocalDateTime.now());
             config.setLastStopTime(null); // Clear stop time when starting
+
+            if (probeEnabled) {
+                // The change probe replaces the interval trigger; run once now, as the interval trigger would
+                scheduleChangeProbeJob();
+                triggerJobNow();
+                config.setNextRunTime(null);
+                schedulerConfigRepository.save(config);
+                log.info("✅ Scheduler started - booking runs follow the change probe (every {} seconds)", probeIntervalSeconds);
+                return getSchedulerStatus();
+            }
+
+            // ✅ Create and schedule trigger
+            Trigger trigger = buildBookingTrigger(intervalMinutes);
+
+            if (scheduler != null) {
+                scheduler.scheduleJob(trigger);
+                log.info("✅ Trigger scheduled successfully");
+            }
             
             if (trigger.getNextFireTime() != null) {
                 config.setNextRunTime(trigger.getNextFireTime().toInstant()
@@ -233,15 +438,26 @@ private void ensureJobIsRegistered() {
         }
     }
 
+    private Trigger buildBookingTrigger(int intervalMinutes) {
+        return TriggerBuilder.newTrigger()
+            .withIdentity(TRIGGER_NAME, TRIGGER_GROUP)
+            .forJob(JOB_NAME, JOB_GROUP)
+            .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                .withIntervalInMinutes(intervalMinutes)
+                .repeatForever())
+            .startNow() // ✅ Start immediately when manually triggered
+            .build();
+    }
+
     @Transactional
     public SchedulerStatusDto stopScheduler() {
         try {
             log.info("🛑 MANUAL STOP requested");
             
             // ✅ Remove the trigger to stop scheduled executions
-            if (scheduler != null && scheduler.checkExists(TriggerKey.triggerKey(TRIGGER_NAME, TRIGGER_GROUP))) {
-                scheduler.unscheduleJob(TriggerKey.triggerKey(TRIGGER_NAME, TRIGGER_GROUP));
-                log.info("✅ Trigger removed - no more scheduled executions");
+            if (scheduler != null && scheduler.checkExists(activeTriggerKey())) {
+                scheduler.unscheduleJob(activeTriggerKey());
+                log.info("✅ Trigger {} removed - no more scheduled executions", activeTriggerKey().getName());
             } else {
                 log.info("ℹ️ No active trigger found to remove");
             }
@@ -276,6 +492,10 @@ private void ensureJobIsRegistered() {
             status.setEnabled(config.isEnabled());
             status.setRunning(isRunning);
             status.setStatus(isRunning ? "RUNNING" : "STOPPED");
+            status.setClustered(clustered);
+            if (scheduler != null) {
+                status.setSchedulerInstanceId(scheduler.getSchedulerInstanceId());
+            }
             
             // ✅ Configuration fields
             status.setIntervalMinutes(config.getIntervalMinutes());
@@ -288,7 +508,7 @@ private void ensureJobIsRegistered() {
             // ✅ Trigger information (only if running)
             if (isRunning && scheduler != null) {
                 try {
-                    Trigger trigger = scheduler.getTrigger(TriggerKey.triggerKey(TRIGGER_NAME, TRIGGER_GROUP));
+                    Trigger trigger = scheduler.getTrigger(activeTriggerKey());
                     if (trigger != null) {
                         if (trigger.getNextFireTime() != null) {
                             status.setNextFireTime(trigger.getNextFireTime().toInstant()
@@ -308,29 +528,26 @@ private void ensureJobIsRegistered() {
                 status.setTriggerState("NONE");
             }
             
-            // ✅ Execution statistics
+            // ✅ Execution statistics - aggregated in the database, constant cost however long the history is
             try {
-                List<JobExecutionHistoryEntity> allExecutions = jobHistoryRepository
-                    .findByJobNameAndJobGroupOrderByStartTimeDesc(JOB_NAME, JOB_GROUP);
+                JobExecutionHistoryRepository.ExecutionStats stats = jobHistoryRepository
+                    .getExecutionStats(JOB_NAME, JOB_GROUP);
+                // Executions already rolled up by the retention job still count
+                JobExecutionHistoryRepository.ExecutionStats summarized = summaryRepository
+                    .getSummarizedStats(JOB_NAME, JOB_GROUP);
                 
-                status.setTotalExecutions(allExecutions.size());
-                status.setSuccessfulExecutions(allExecutions.stream()
-                    .mapToLong(exec -> exec.getStatus() == JobExecutionHistoryEntity.ExecutionStatus.COMPLETED ? 1 : 0)
-                    .sum());
-                status.setFailedExecutions(allExecutions.stream()
-                    .mapToLong(exec -> exec.getStatus() == JobExecutionHistoryEntity.ExecutionStatus.FAILED ? 1 : 0)
-                    .sum());
+                status.setTotalExecutions(stats.getTotal() + summarized.getTotal());
+                status.setSuccessfulExecutions(orZero(stats.getSuccessful()) + orZero(summarized.getSuccessful()));
+                status.setFailedExecutions(orZero(stats.getFailed()) + orZero(summarized.getFailed()));
                 
                 // Get last successful run
-                allExecutions.stream()
-                    .filter(exec -> exec.getStatus() == JobExecutionHistoryEntity.ExecutionStatus.COMPLETED)
-                    .findFirst()
+                jobHistoryRepository.findFirstByJobNameAndJobGroupAndStatusOrderByStartTimeDesc(
+                        JOB_NAME, JOB_GROUP, JobExecutionHistoryEntity.ExecutionStatus.COMPLETED)
                     .ifPresent(exec -> status.setLastSuccessfulRun(exec.getEndTime()));
                 
                 // Get last error
-                allExecutions.stream()
-                    .filter(exec -> exec.getStatus() == JobExecutionHistoryEntity.ExecutionStatus.FAILED)
-                    .findFirst()
+                jobHistoryRepository.findFirstByJobNameAndJobGroupAndStatusOrderByStartTimeDesc(
+                        JOB_NAME, JOB_GROUP, JobExecutionHistoryEntity.ExecutionStatus.FAILED)
                     .ifPresent(exec -> status.setLastErrorMessage(exec.getErrorMessage()));
                 
             } catch (Exception e) {
@@ -389,7 +606,7 @@ private void ensureJobIsRegistered() {
         try {
             return scheduler != null && 
                    scheduler.isStarted() && 
-                   scheduler.checkExists(TriggerKey.triggerKey(TRIGGER_NAME, TRIGGER_GROUP));
+                   scheduler.checkExists(activeTriggerKey());
         } catch (Exception e) {
             log.error("❌ Error checking scheduler status", e);
             return false;
@@ -426,52 +643,62 @@ private void ensureJobIsRegistered() {
     }
 
     public SchedulerHistoryResponse getJobHistory(int page, int size, Integer days) {
+        return getJobHistory(page, size, days, null, true);
+    }
+
+    /**
+     * Newest-first job history. With a cursor (the nextCursor of the previous response) the page is read with a
+     * keyset seek on (start_time, execution_id), so deep pages cost the same as the first one; without a cursor
+     * the page number is applied as an offset in SQL. The total count is optional.
+     */
+    public SchedulerHistoryResponse getJobHistory(int page, int size, Integer days, String cursor, boolean includeTotal) {
         try {
-            log.info("📊 Getting job history: page={}, size={}, days={}", page, size, days);
+            log.info("📊 Getting job history: page={}, size={}, days={}, cursor={}", page, size, days, cursor);
             
-            List<JobExecutionHistoryEntity> executions;
+            LocalDateTime from = days != null && days > 0
+                    ? LocalDateTime.now().minusDays(days)
+                    : HISTORY_EPOCH;
             
-            if (days != null && days > 0) {
-                LocalDateTime cutoff = LocalDateTime.now().minusDays(days);
-                Pageable pageable = PageRequest.of(page, size);
-                Page<JobExecutionHistoryEntity> pagedExecutions = jobHistoryRepository
-                        .findByStartTimeAfter(cutoff, pageable);
-                
-                executions = pagedExecutions.getContent();
-                
-                List<JobExecutionDto> executionDtos = executions.stream()
-                        .map(this::convertToDto)
-                        .collect(Collectors.toList());
-                
-                SchedulerHistoryResponse response = new SchedulerHistoryResponse();
-                response.setExecutions(executionDtos);
-                response.setTotalCount(pagedExecutions.getTotalElements());
-                response.setPage(page);
-                response.setSize(size);
-                
-                return response;
+            List<JobExecutionHistoryEntity> executions;
+            if (cursor != null && !cursor.isBlank()) {
+                HistoryCursor position = HistoryCursor.decode(cursor);
+                executions = jobHistoryRepository.findHistoryPageAfter(JOB_NAME, JOB_GROUP, from,
+                        position.startTime(), position.executionId(), PageRequest.of(0, size));
             } else {
-                executions = jobHistoryRepository
-                        .findByJobNameAndJobGroupOrderByStartTimeDesc(JOB_NAME, JOB_GROUP);
-                
-                List<JobExecutionDto> executionDtos = executions.stream()
-                        .map(this::convertToDto)
-                        .collect(Collectors.toList());
-                
-                int start = page * size;
-                int end = Math.min(start + size, executionDtos.size());
-                
-                List<JobExecutionDto> paginatedResults = executionDtos.subList(start, end);
-                
-                SchedulerHistoryResponse response = new SchedulerHistoryResponse();
-                response.setExecutions(paginatedResults);
-                response.setTotalCount(executions.size());
-                response.setPage(page);
-                response.setSize(size);
-                
-                return response;
+                executions = jobHistoryRepository.findHistoryPage(JOB_NAME, JOB_GROUP, from,
+                        PageRequest.of(page, size));
             }
             
+            List<JobExecutionDto> executionDtos = executions.stream()
+                    .map(this::convertToDto)
+                    .collect(Collectors.toList());
+            
+            SchedulerHistoryResponse response = new SchedulerHistoryResponse();
+            response.setExecutions(executionDtos);
+            response.setTotalCount(includeTotal ? jobHistoryRepository.countHistory(JOB_NAME, JOB_GROUP, from) : -1);
+            response.setPage(page);
+            response.setSize(size);
+            // Days past the retention horizon only exist as daily summaries. They are the same for every page of a
+            // request, so every page carries them; without days they cover summary-days.
+            LocalDate summariesFrom = days != null && days > 0
+                    ? from.toLocalDate()
+                    : LocalDate.now().minusDays(summaryDays);
+            response.setDailySummaries(summaryRepository
+                    .findByJobNameAndJobGroupAndSummaryDateGreaterThanEqualOrderBySummaryDateDesc(
+                            JOB_NAME, JOB_GROUP, summariesFrom)
+                    .stream()
+                    .map(this::convertToDto)
+                    .collect(Collectors.toList()));
+            // A full page may have a successor; the cursor seeks past its last row
+            if (executions.size() == size) {
+                JobExecutionHistoryEntity last = executions.get(executions.size() - 1);
+                response.setNextCursor(new HistoryCursor(last.getStartTime(), last.getId()).encode());
+            }
+            
+            return response;
+            
+        } catch (IllegalArgumentException e) {
+            throw e;
         } catch (Exception e) {
             log.error("❌ Error getting job history", e);
             
@@ -480,20 +707,35 @@ private void ensureJobIsRegistered() {
             emptyResponse.setTotalCount(0);
             emptyResponse.setPage(page);
             emptyResponse.setSize(size);
+            emptyResponse.setDailySummaries(List.of());
             return emptyResponse;
         }
     }
 
-    // ✅ Job execution recording methods (unchanged)
+    // ✅ Job execution recording methods
     public LocalDateTime getProcessingStartTime(String jobName) {
+        return getProcessingStartTime(jobName, DEFAULT_PARTITION);
+    }
+
+    /**
+     * Start of the processing window for a job partition: its watermark (one-row read), or for a job without
+     * a watermark yet the last completed run's processToTime, then the configured start time, then 30 days ago.
+     */
+    public LocalDateTime getProcessingStartTime(String jobName, String partitionKey) {
         try {
-            List<JobExecutionHistoryEntity> executions = jobHistoryRepository
-                .findByJobNameAndJobGroupOrderByStartTimeDesc(jobName, JOB_GROUP);
+            Optional<JobWatermarkEntity> watermark = watermarkRepository
+                .findById(new JobWatermarkEntity.WatermarkId(jobName, partitionKey));
             
-            Optional<JobExecutionHistoryEntity> lastSuccessful = executions.stream()
-                .filter(exec -> exec.getStatus() == JobExecutionHistoryEntity.ExecutionStatus.COMPLETED)
-                .filter(exec -> exec.getProcessToTime() != null)
-                .findFirst();
+            if (watermark.isPresent()) {
+                LocalDateTime lastProcessedTo = watermark.get().getWatermarkTime();
+                log.info("📅 Using watermark for {}/{}: {}", jobName, partitionKey, lastProcessedTo);
+                return lastProcessedTo;
+            }
+            
+            // No watermark yet (first run after upgrade) - seed from the last completed run
+            Optional<JobExecutionHistoryEntity> lastSuccessful = jobHistoryRepository
+                .findFirstByJobNameAndJobGroupAndStatusAndProcessToTimeIsNotNullOrderByStartTimeDesc(
+                    jobName, JOB_GROUP, JobExecutionHistoryEntity.ExecutionStatus.COMPLETED);
             
             if (lastSuccessful.isPresent()) {
                 LocalDateTime lastProcessedTo = lastSuccessful.get().getProcessToTime();
@@ -519,6 +761,19 @@ private void ensureJobIsRegistered() {
         }
     }
 
+    /**
+     * Sets the first watermark of a job that tracks its own notion of progress (not a run's processToTime)
+     */
+    @Transactional
+    public void initializeWatermark(String jobName, String partitionKey, LocalDateTime watermarkTime) {
+        advanceWatermark(jobName, partitionKey, watermarkTime, null);
+    }
+
+    public Optional<LocalDateTime> findWatermark(String jobName, String partitionKey) {
+        return watermarkRepository.findById(new JobWatermarkEntity.WatermarkId(jobName, partitionKey))
+            .map(JobWatermarkEntity::getWatermarkTime);
+    }
+
     @Transactional
     public Long recordJobStart(String jobName, String jobGroup, String triggerName,
                             String triggerGroup, LocalDateTime startTime) {
@@ -546,6 +801,24 @@ private void ensureJobIsRegistered() {
     public void recordJobCompletion(Long executionId, LocalDateTime endTime,
                                 long recordsProcessed, LocalDateTime processFromTime,
                                 LocalDateTime processToTime) {
+        recordJobCompletion(executionId, endTime, recordsProcessed, processFromTime, processToTime, DEFAULT_PARTITION);
+    }
+
+    @Transactional
+    public void recordJobCompletion(Long executionId, LocalDateTime endTime,
+                                long recordsProcessed, LocalDateTime processFromTime,
+                                LocalDateTime processToTime, String partitionKey) {
+        recordJobCompletion(executionId, endTime, recordsProcessed, processFromTime, processToTime, partitionKey, null);
+    }
+
+    /**
+     * Marks the execution completed and advances the partition's watermark in the same transaction.
+     * Stage metrics, when given, replace any recorded earlier for the execution.
+     */
+    @Transactional
+    public void recordJobCompletion(Long executionId, LocalDateTime endTime,
+                                long recordsProcessed, LocalDateTime processFromTime,
+                                LocalDateTime processToTime, String partitionKey, RunMetrics metrics) {
         if (executionId == null) {
             log.warn("⚠️ Cannot record job completion - executionId is null");
             return;
@@ -564,6 +837,9 @@ private void ensureJobIsRegistered() {
             execution.setRecordsProcessed(recordsProcessed);
             execution.setProcessFromTime(processFromTime);
             execution.setProcessToTime(processToTime);
+            if (metrics != null) {
+                execution.setStageMetrics(metrics.toJson());
+            }
             
             // ✅ NEW: Set success message with record count
             String successMessage = String.format("Successfully processed %d records", recordsProcessed);
@@ -576,6 +852,10 @@ private void ensureJobIsRegistered() {
             
             jobHistoryRepository.save(execution);
             
+            if (processToTime != null) {
+                advanceWatermark(execution.getJobName(), partitionKey, processToTime, executionId);
+            }
+            
             log.info("✅ Recorded job completion: {} records processed", recordsProcessed);
             
         } catch (Exception e) {
@@ -583,8 +863,34 @@ private void ensureJobIsRegistered() {
         }
     }
 
+    private void advanceWatermark(String jobName, String partitionKey, LocalDateTime processToTime, Long executionId) {
+        JobWatermarkEntity watermark = watermarkRepository
+            .findById(new JobWatermarkEntity.WatermarkId(jobName, partitionKey))
+            .orElseGet(() -> {
+                JobWatermarkEntity created = new JobWatermarkEntity();
+                created.setJobName(jobName);
+                created.setPartitionKey(partitionKey);
+                return created;
+            });
+        
+        // Watermarks only move forward
+        if (watermark.getWatermarkTime() != null && !processToTime.isAfter(watermark.getWatermarkTime())) {
+            return;
+        }
+        
+        watermark.setWatermarkTime(processToTime);
+        watermark.setExecutionId(executionId);
+        watermarkRepository.save(watermark);
+        log.info("📌 Watermark for {}/{} advanced to {}", jobName, partitionKey, processToTime);
+    }
+
     @Transactional
     public void recordJobFailure(Long executionId, LocalDateTime endTime, String errorMessage) {
+        recordJobFailure(executionId, endTime, errorMessage, null);
+    }
+
+    @Transactional
+    public void recordJobFailure(Long executionId, LocalDateTime endTime, String errorMessage, RunMetrics metrics) {
         if (executionId == null) {
             log.warn("⚠️ Cannot record job failure - executionId is null");
             return;
@@ -604,6 +910,9 @@ private void ensureJobIsRegistered() {
             // ✅ Format error message nicely
             String formattedError = String.format("Job failed: %s", errorMessage);
             execution.setErrorMessage(formattedError);
+            if (metrics != null) {
+                execution.setStageMetrics(metrics.toJson());
+            }
             
             if (execution.getStartTime() != null) {
                 long durationMs = java.time.Duration.between(execution.getStartTime(), endTime).toMillis();
@@ -619,6 +928,29 @@ private void ensureJobIsRegistered() {
         }
     }
 
+    /**
+     * Stores stage metrics of an execution that is completed later by another thread or node
+     */
+    @Transactional
+    public void recordStageMetrics(Long executionId, RunMetrics metrics) {
+        if (executionId == null) {
+            return;
+        }
+        jobHistoryRepository.findById(executionId).ifPresent(execution -> {
+            execution.setStageMetrics(metrics.toJson());
+            jobHistoryRepository.save(execution);
+        });
+    }
+
+    public Optional<RunMetrics> findStageMetrics(Long executionId) {
+        if (executionId == null) {
+            return Optional.empty();
+        }
+        return jobHistoryRepository.findById(executionId)
+            .map(JobExecutionHistoryEntity::getStageMetrics)
+            .map(RunMetrics::fromJson);
+    }
+
     @Transactional
     public void updateLastRunTime(String jobName, LocalDateTime lastRunTime) {
         try {
@@ -631,6 +963,22 @@ private void ensureJobIsRegistered() {
         }
     }
 
+    private JobExecutionSummaryDto convertToDto(JobExecutionDailySummaryEntity summary) {
+        return new JobExecutionSummaryDto(
+                summary.getSummaryDate(),
+                summary.getExecutionCount(),
+                summary.getSuccessCount(),
+                summary.getFailureCount(),
+                summary.getRecordsProcessed(),
+                summary.getMinDurationMs(),
+                summary.getAvgDurationMs(),
+                summary.getMaxDurationMs());
+    }
+
+    private static long orZero(Long value) {
+        return value != null ? value : 0;
+    }
+
     private JobExecutionDto convertToDto(JobExecutionHistoryEntity entity) {
         JobExecutionDto dto = new JobExecutionDto();
         dto.setId(entity.getId());
@@ -646,6 +994,7 @@ private void ensureJobIsRegistered() {
         dto.setDurationMs(entity.getDurationMs());
         dto.setProcessFromTime(entity.getProcessFromTime());
         dto.setProcessToTime(entity.getProcessToTime());
+        dto.setStageMetrics(entity.getStageMetrics());
         
         // ✅ NEW: Set appropriate message based on status
         if (entity.getStatus() == JobExecutionHistoryEntity.ExecutionStatus.COMPLETED) {
@@ -661,4 +1010,26 @@ private void ensureJobIsRegistered() {
         
         return dto;
     }
+
+    /**
+     * Opaque history cursor: the (start_time, execution_id) of the last row returned, URL-safe Base64 encoded
+     */
+    private record HistoryCursor(LocalDateTime startTime, Long executionId) {
+
+        String encode() {
+            String raw = startTime + "|" + executionId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static HistoryCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                return new HistoryCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid history cursor: " + cursor);
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package vine.vine.service;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import vine.vine.domain.dto.response.ReferenceDataCacheStatsDto;
 import vine.vine.domain.dto.response.Systab1Response;
 
 import java.util.List;
@@ -9,4 +10,10 @@ import java.util.List;
 public interface Systab1Service {
 
     Page<Systab1Response> getAllSystab1(Pageable pageable);
+
+    List<Systab1Response> getCodeTable(String codeKey);
+
+    ReferenceDataCacheStatsDto getCacheStats();
+
+    void invalidateCache(String codeKey);
 }
@@ -0,0 +1,30 @@
+-- H2 counterpart of sqlserver/V1 for tests; same tables, H2 types
+
+CREATE TABLE job_execution_history (
+    execution_id      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    job_name          VARCHAR(255) NOT NULL,
+    job_group         VARCHAR(255) NOT NULL,
+    trigger_name      VARCHAR(255),
+    trigger_group     VARCHAR(255),
+    start_time        TIMESTAMP    NOT NULL,
+    end_time          TIMESTAMP,
+    status            VARCHAR(20)  NOT NULL,
+    error_message     CLOB,
+    records_processed BIGINT,
+    duration_ms       BIGINT,
+    process_from_time TIMESTAMP,
+    process_to_time   TIMESTAMP
+);
+
+CREATE TABLE scheduler_config (
+    config_name      VARCHAR(100) NOT NULL PRIMARY KEY,
+    enabled          BOOLEAN      NOT NULL,
+    last_start_time  TIMESTAMP,
+    last_stop_time   TIMESTAMP,
+    interval_minutes INT          NOT NULL,
+    last_run_time    TIMESTAMP,
+    next_run_time    TIMESTAMP,
+    start_from_time  TIMESTAMP,
+    created_at       TIMESTAMP    NOT NULL,
+    updated_at       TIMESTAMP
+);
@@ -0,0 +1,10 @@
+-- H2 counterpart of sqlserver/V2
+
+CREATE TABLE job_watermark (
+    job_name       VARCHAR(255) NOT NULL,
+    partition_key  VARCHAR(50)  NOT NULL,
+    watermark_time TIMESTAMP    NOT NULL,
+    execution_id   BIGINT,
+    updated_at     TIMESTAMP,
+    CONSTRAINT pk_job_watermark PRIMARY KEY (job_name, partition_key)
+);
@@ -0,0 +1,18 @@
+-- H2 counterpart of sqlserver/V3
+
+CREATE TABLE job_execution_daily_summary (
+    summary_id        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    job_name          VARCHAR(255) NOT NULL,
+    job_group         VARCHAR(255) NOT NULL,
+    summary_date      DATE         NOT NULL,
+    execution_count   BIGINT       NOT NULL,
+    success_count     BIGINT       NOT NULL,
+    failure_count     BIGINT       NOT NULL,
+    records_processed BIGINT       NOT NULL,
+    min_duration_ms   BIGINT,
+    avg_duration_ms   BIGINT,
+    max_duration_ms   BIGINT,
+    duration_samples  BIGINT       NOT NULL,
+    updated_at        TIMESTAMP,
+    CONSTRAINT uq_job_execution_daily_summary UNIQUE (job_name, job_group, summary_date)
+);
@@ -0,0 +1,31 @@
+-- H2 counterpart of sqlserver/V4
+
+CREATE TABLE booking_partition_lease (
+    lease_id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    run_id                VARCHAR(64)  NOT NULL,
+    partition_index       INT          NOT NULL,
+    partition_count       INT          NOT NULL,
+    status                VARCHAR(20)  NOT NULL,
+    owner                 VARCHAR(255),
+    lease_expires_at      TIMESTAMP,
+    attempts              INT          NOT NULL,
+    run_process_from_time TIMESTAMP    NOT NULL,
+    process_from_time     TIMESTAMP,
+    execution_id          BIGINT,
+    record_count          BIGINT,
+    error_message         CLOB,
+    created_at            TIMESTAMP,
+    CONSTRAINT uq_booking_partition_lease UNIQUE (run_id, partition_index)
+);
+
+CREATE INDEX ix_booking_partition_lease_status ON booking_partition_lease (status, lease_expires_at);
+
+CREATE TABLE booking_partition_fragment (
+    fragment_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    run_id      VARCHAR(64) NOT NULL,
+    lease_id    BIGINT      NOT NULL,
+    book_id     BIGINT      NOT NULL,
+    lines       CLOB        NOT NULL
+);
+
+CREATE INDEX ix_booking_partition_fragment_run ON booking_partition_fragment (run_id, book_id);
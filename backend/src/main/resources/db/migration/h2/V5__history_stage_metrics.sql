@@ -0,0 +1,3 @@
+-- H2 counterpart of sqlserver/V5
+
+ALTER TABLE job_execution_history ADD COLUMN stage_metrics CLOB;
@@ -0,0 +1,5 @@
+-- H2 counterpart of sqlserver/V7
+
+CREATE INDEX ix_job_execution_history_job_start ON job_execution_history (job_name, job_group, start_time DESC);
+CREATE INDEX ix_job_execution_history_status_start ON job_execution_history (status, start_time);
+CREATE INDEX ix_job_execution_history_start ON job_execution_history (start_time);
@@ -0,0 +1,3 @@
+-- H2 counterpart of sqlserver/V9
+
+ALTER TABLE booking_partition_lease ADD COLUMN config_snapshot CLOB;
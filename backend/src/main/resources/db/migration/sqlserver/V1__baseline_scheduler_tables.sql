@@ -0,0 +1,37 @@
+-- Tables the application owned before migrations existed. They were created by hand, so every statement is
+-- guarded: on an existing database this script is a no-op, on an empty one it creates the same schema.
+
+IF OBJECT_ID(N'dbo.job_execution_history', N'U') IS NULL
+BEGIN
+    CREATE TABLE dbo.job_execution_history (
+        execution_id      BIGINT IDENTITY(1,1) NOT NULL CONSTRAINT pk_job_execution_history PRIMARY KEY,
+        job_name          VARCHAR(255)  NOT NULL,
+        job_group         VARCHAR(255)  NOT NULL,
+        trigger_name      VARCHAR(255)  NULL,
+        trigger_group     VARCHAR(255)  NULL,
+        start_time        DATETIME2     NOT NULL,
+        end_time          DATETIME2     NULL,
+        status            VARCHAR(20)   NOT NULL,
+        error_message     NVARCHAR(MAX) NULL,
+        records_processed BIGINT        NULL,
+        duration_ms       BIGINT        NULL,
+        process_from_time DATETIME2     NULL,
+        process_to_time   DATETIME2     NULL
+    );
+END;
+
+IF OBJECT_ID(N'dbo.scheduler_config', N'U') IS NULL
+BEGIN
+    CREATE TABLE dbo.scheduler_config (
+        config_name      VARCHAR(100) NOT NULL CONSTRAINT pk_scheduler_config PRIMARY KEY,
+        enabled          BIT          NOT NULL,
+        last_start_time  DATETIME2    NULL,
+        last_stop_time   DATETIME2    NULL,
+        interval_minutes INT          NOT NULL,
+        last_run_time    DATETIME2    NULL,
+        next_run_time    DATETIME2    NULL,
+        start_from_time  DATETIME2    NULL,
+        created_at       DATETIME2    NOT NULL,
+        updated_at       DATETIME2    NULL
+    );
+END;
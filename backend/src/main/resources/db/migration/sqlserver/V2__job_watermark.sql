@@ -0,0 +1,13 @@
+-- Processing watermark per job and partition (SchedulerService), replacing the scan for the last successful run
+
+IF OBJECT_ID(N'dbo.job_watermark', N'U') IS NULL
+BEGIN
+    CREATE TABLE dbo.job_watermark (
+        job_name       VARCHAR(255) NOT NULL,
+        partition_key  VARCHAR(50)  NOT NULL,
+        watermark_time DATETIME2    NOT NULL,
+        execution_id   BIGINT       NULL,
+        updated_at     DATETIME2    NULL,
+        CONSTRAINT pk_job_watermark PRIMARY KEY (job_name, partition_key)
+    );
+END;
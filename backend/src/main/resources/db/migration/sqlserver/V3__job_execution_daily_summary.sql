@@ -0,0 +1,21 @@
+-- Daily roll-ups of job_execution_history rows past the retention horizon (JobHistoryRetentionService)
+
+IF OBJECT_ID(N'dbo.job_execution_daily_summary', N'U') IS NULL
+BEGIN
+    CREATE TABLE dbo.job_execution_daily_summary (
+        summary_id        BIGINT IDENTITY(1,1) NOT NULL CONSTRAINT pk_job_execution_daily_summary PRIMARY KEY,
+        job_name          VARCHAR(255) NOT NULL,
+        job_group         VARCHAR(255) NOT NULL,
+        summary_date      DATE         NOT NULL,
+        execution_count   BIGINT       NOT NULL,
+        success_count     BIGINT       NOT NULL,
+        failure_count     BIGINT       NOT NULL,
+        records_processed BIGINT       NOT NULL,
+        min_duration_ms   BIGINT       NULL,
+        avg_duration_ms   BIGINT       NULL,
+        max_duration_ms   BIGINT       NULL,
+        duration_samples  BIGINT       NOT NULL,
+        updated_at        DATETIME2    NULL,
+        CONSTRAINT uq_job_execution_daily_summary UNIQUE (job_name, job_group, summary_date)
+    );
+END;
@@ -0,0 +1,38 @@
+-- Partition leases and the DAT fragments their workers write, for lease-mode booking runs (BookingLeaseService)
+
+IF OBJECT_ID(N'dbo.booking_partition_lease', N'U') IS NULL
+BEGIN
+    CREATE TABLE dbo.booking_partition_lease (
+        lease_id              BIGINT IDENTITY(1,1) NOT NULL CONSTRAINT pk_booking_partition_lease PRIMARY KEY,
+        run_id                VARCHAR(64)   NOT NULL,
+        partition_index       INT           NOT NULL,
+        partition_count       INT           NOT NULL,
+        status                VARCHAR(20)   NOT NULL,
+        owner                 VARCHAR(255)  NULL,
+        lease_expires_at      DATETIME2     NULL,
+        attempts              INT           NOT NULL,
+        run_process_from_time DATETIME2     NOT NULL,
+        process_from_time     DATETIME2     NULL,
+        execution_id          BIGINT        NULL,
+        record_count          BIGINT        NULL,
+        error_message         NVARCHAR(MAX) NULL,
+        created_at            DATETIME2     NULL,
+        CONSTRAINT uq_booking_partition_lease UNIQUE (run_id, partition_index)
+    );
+
+    -- Claim scan: PENDING leases, or LEASED ones whose lease expired
+    CREATE INDEX ix_booking_partition_lease_status ON dbo.booking_partition_lease (status, lease_expires_at);
+END;
+
+IF OBJECT_ID(N'dbo.booking_partition_fragment', N'U') IS NULL
+BEGIN
+    CREATE TABLE dbo.booking_partition_fragment (
+        fragment_id BIGINT IDENTITY(1,1) NOT NULL CONSTRAINT pk_booking_partition_fragment PRIMARY KEY,
+        run_id      VARCHAR(64)   NOT NULL,
+        lease_id    BIGINT        NOT NULL,
+        book_id     BIGINT        NOT NULL,
+        lines       NVARCHAR(MAX) NOT NULL
+    );
+
+    CREATE INDEX ix_booking_partition_fragment_run ON dbo.booking_partition_fragment (run_id, book_id);
+END;
@@ -0,0 +1,4 @@
+-- Per-stage timing and volume of each execution (RunMetrics JSON)
+
+IF COL_LENGTH(N'dbo.job_execution_history', N'stage_metrics') IS NULL
+    ALTER TABLE dbo.job_execution_history ADD stage_metrics NVARCHAR(MAX) NULL;
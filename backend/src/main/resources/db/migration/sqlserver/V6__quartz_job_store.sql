@@ -0,0 +1,139 @@
+-- Quartz JDBC job store (tables_sqlServer.sql from the Quartz distribution, used with MSSQLDelegate), previously
+-- created by spring.quartz.jdbc.initialize-schema. Guarded like V1, so databases that already have the QRTZ_
+-- tables keep them.
+
+IF OBJECT_ID(N'dbo.QRTZ_LOCKS', N'U') IS NULL
+BEGIN
+    CREATE TABLE dbo.QRTZ_JOB_DETAILS (
+        SCHED_NAME        VARCHAR(120)   NOT NULL,
+        JOB_NAME          VARCHAR(200)   NOT NULL,
+        JOB_GROUP         VARCHAR(200)   NOT NULL,
+        DESCRIPTION       VARCHAR(250)   NULL,
+        JOB_CLASS_NAME    VARCHAR(250)   NOT NULL,
+        IS_DURABLE        VARCHAR(1)     NOT NULL,
+        IS_NONCONCURRENT  VARCHAR(1)     NOT NULL,
+        IS_UPDATE_DATA    VARCHAR(1)     NOT NULL,
+        REQUESTS_RECOVERY VARCHAR(1)     NOT NULL,
+        JOB_DATA          VARBINARY(MAX) NULL,
+        CONSTRAINT PK_QRTZ_JOB_DETAILS PRIMARY KEY (SCHED_NAME, JOB_NAME, JOB_GROUP)
+    );
+
+    CREATE TABLE dbo.QRTZ_TRIGGERS (
+        SCHED_NAME     VARCHAR(120)   NOT NULL,
+        TRIGGER_NAME   VARCHAR(200)   NOT NULL,
+        TRIGGER_GROUP  VARCHAR(200)   NOT NULL,
+        JOB_NAME       VARCHAR(200)   NOT NULL,
+        JOB_GROUP      VARCHAR(200)   NOT NULL,
+        DESCRIPTION    VARCHAR(250)   NULL,
+        NEXT_FIRE_TIME BIGINT         NULL,
+        PREV_FIRE_TIME BIGINT         NULL,
+        PRIORITY       INTEGER        NULL,
+        TRIGGER_STATE  VARCHAR(16)    NOT NULL,
+        TRIGGER_TYPE   VARCHAR(8)     NOT NULL,
+        START_TIME     BIGINT         NOT NULL,
+        END_TIME       BIGINT         NULL,
+        CALENDAR_NAME  VARCHAR(200)   NULL,
+        MISFIRE_INSTR  SMALLINT       NULL,
+        JOB_DATA       VARBINARY(MAX) NULL,
+        CONSTRAINT PK_QRTZ_TRIGGERS PRIMARY KEY (SCHED_NAME, TRIGGER_NAME, TRIGGER_GROUP),
+        CONSTRAINT FK_QRTZ_TRIGGERS_QRTZ_JOB_DETAILS FOREIGN KEY (SCHED_NAME, JOB_NAME, JOB_GROUP)
+            REFERENCES dbo.QRTZ_JOB_DETAILS (SCHED_NAME, JOB_NAME, JOB_GROUP)
+    );
+
+    CREATE TABLE dbo.QRTZ_SIMPLE_TRIGGERS (
+        SCHED_NAME      VARCHAR(120) NOT NULL,
+        TRIGGER_NAME    VARCHAR(200) NOT NULL,
+        TRIGGER_GROUP   VARCHAR(200) NOT NULL,
+        REPEAT_COUNT    BIGINT       NOT NULL,
+        REPEAT_INTERVAL BIGINT       NOT NULL,
+        TIMES_TRIGGERED BIGINT       NOT NULL,
+        CONSTRAINT PK_QRTZ_SIMPLE_TRIGGERS PRIMARY KEY (SCHED_NAME, TRIGGER_NAME, TRIGGER_GROUP),
+        CONSTRAINT FK_QRTZ_SIMPLE_TRIGGERS_QRTZ_TRIGGERS FOREIGN KEY (SCHED_NAME, TRIGGER_NAME, TRIGGER_GROUP)
+            REFERENCES dbo.QRTZ_TRIGGERS (SCHED_NAME, TRIGGER_NAME, TRIGGER_GROUP) ON DELETE CASCADE
+    );
+
+    CREATE TABLE dbo.QRTZ_CRON_TRIGGERS (
+        SCHED_NAME      VARCHAR(120) NOT NULL,
+        TRIGGER_NAME    VARCHAR(200) NOT NULL,
+        TRIGGER_GROUP   VARCHAR(200) NOT NULL,
+        CRON_EXPRESSION VARCHAR(120) NOT NULL,
+        TIME_ZONE_ID    VARCHAR(80)  NULL,
+        CONSTRAINT PK_QRTZ_CRON_TRIGGERS PRIMARY KEY (SCHED_NAME, TRIGGER_NAME, TRIGGER_GROUP),
+        CONSTRAINT FK_QRTZ_CRON_TRIGGERS_QRTZ_TRIGGERS FOREIGN KEY (SCHED_NAME, TRIGGER_NAME, TRIGGER_GROUP)
+            REFERENCES dbo.QRTZ_TRIGGERS (SCHED_NAME, TRIGGER_NAME, TRIGGER_GROUP) ON DELETE CASCADE
+    );
+
+    CREATE TABLE dbo.QRTZ_SIMPROP_TRIGGERS (
+        SCHED_NAME    VARCHAR(120)   NOT NULL,
+        TRIGGER_NAME  VARCHAR(200)   NOT NULL,
+        TRIGGER_GROUP VARCHAR(200)   NOT NULL,
+        STR_PROP_1    VARCHAR(512)   NULL,
+        STR_PROP_2    VARCHAR(512)   NULL,
+        STR_PROP_3    VARCHAR(512)   NULL,
+        INT_PROP_1    INT            NULL,
+        INT_PROP_2    INT            NULL,
+        LONG_PROP_1   BIGINT         NULL,
+        LONG_PROP_2   BIGINT         NULL,
+        DEC_PROP_1    NUMERIC(13,4)  NULL,
+        DEC_PROP_2    NUMERIC(13,4)  NULL,
+        BOOL_PROP_1   VARCHAR(1)     NULL,
+        BOOL_PROP_2   VARCHAR(1)     NULL,
+        CONSTRAINT PK_QRTZ_SIMPROP_TRIGGERS PRIMARY KEY (SCHED_NAME, TRIGGER_NAME, TRIGGER_GROUP),
+        CONSTRAINT FK_QRTZ_SIMPROP_TRIGGERS_QRTZ_TRIGGERS FOREIGN KEY (SCHED_NAME, TRIGGER_NAME, TRIGGER_GROUP)
+            REFERENCES dbo.QRTZ_TRIGGERS (SCHED_NAME, TRIGGER_NAME, TRIGGER_GROUP) ON DELETE CASCADE
+    );
+
+    CREATE TABLE dbo.QRTZ_BLOB_TRIGGERS (
+        SCHED_NAME    VARCHAR(120)   NOT NULL,
+        TRIGGER_NAME  VARCHAR(200)   NOT NULL,
+        TRIGGER_GROUP VARCHAR(200)   NOT NULL,
+        BLOB_DATA     VARBINARY(MAX) NULL,
+        CONSTRAINT PK_QRTZ_BLOB_TRIGGERS PRIMARY KEY (SCHED_NAME, TRIGGER_NAME, TRIGGER_GROUP),
+        CONSTRAINT FK_QRTZ_BLOB_TRIGGERS_QRTZ_TRIGGERS FOREIGN KEY (SCHED_NAME, TRIGGER_NAME, TRIGGER_GROUP)
+            REFERENCES dbo.QRTZ_TRIGGERS (SCHED_NAME, TRIGGER_NAME, TRIGGER_GROUP) ON DELETE CASCADE
+    );
+
+    CREATE TABLE dbo.QRTZ_CALENDARS (
+        SCHED_NAME    VARCHAR(120)   NOT NULL,
+        CALENDAR_NAME VARCHAR(200)   NOT NULL,
+        CALENDAR      VARBINARY(MAX) NOT NULL,
+        CONSTRAINT PK_QRTZ_CALENDARS PRIMARY KEY (SCHED_NAME, CALENDAR_NAME)
+    );
+
+    CREATE TABLE dbo.QRTZ_PAUSED_TRIGGER_GRPS (
+        SCHED_NAME    VARCHAR(120) NOT NULL,
+        TRIGGER_GROUP VARCHAR(200) NOT NULL,
+        CONSTRAINT PK_QRTZ_PAUSED_TRIGGER_GRPS PRIMARY KEY (SCHED_NAME, TRIGGER_GROUP)
+    );
+
+    CREATE TABLE dbo.QRTZ_FIRED_TRIGGERS (
+        SCHED_NAME        VARCHAR(120) NOT NULL,
+        ENTRY_ID          VARCHAR(95)  NOT NULL,
+        TRIGGER_NAME      VARCHAR(200) NOT NULL,
+        TRIGGER_GROUP     VARCHAR(200) NOT NULL,
+        INSTANCE_NAME     VARCHAR(200) NOT NULL,
+        FIRED_TIME        BIGINT       NOT NULL,
+        SCHED_TIME        BIGINT       NOT NULL,
+        PRIORITY          INTEGER      NOT NULL,
+        STATE             VARCHAR(16)  NOT NULL,
+        JOB_NAME          VARCHAR(200) NULL,
+        JOB_GROUP         VARCHAR(200) NULL,
+        IS_NONCONCURRENT  VARCHAR(1)   NULL,
+        REQUESTS_RECOVERY VARCHAR(1)   NULL,
+        CONSTRAINT PK_QRTZ_FIRED_TRIGGERS PRIMARY KEY (SCHED_NAME, ENTRY_ID)
+    );
+
+    CREATE TABLE dbo.QRTZ_SCHEDULER_STATE (
+        SCHED_NAME        VARCHAR(120) NOT NULL,
+        INSTANCE_NAME     VARCHAR(200) NOT NULL,
+        LAST_CHECKIN_TIME BIGINT       NOT NULL,
+        CHECKIN_INTERVAL  BIGINT       NOT NULL,
+        CONSTRAINT PK_QRTZ_SCHEDULER_STATE PRIMARY KEY (SCHED_NAME, INSTANCE_NAME)
+    );
+
+    CREATE TABLE dbo.QRTZ_LOCKS (
+        SCHED_NAME VARCHAR(120) NOT NULL,
+        LOCK_NAME  VARCHAR(40)  NOT NULL,
+        CONSTRAINT PK_QRTZ_LOCKS PRIMARY KEY (SCHED_NAME, LOCK_NAME)
+    );
+END;
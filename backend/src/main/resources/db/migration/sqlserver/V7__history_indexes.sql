@@ -0,0 +1,20 @@
+-- Indexes behind the status and history queries. Guarded for databases where they were created by hand.
+
+-- History pages, last-successful-run and watermark lookups: job_name = ? AND job_group = ? ORDER BY start_time DESC
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'ix_job_execution_history_job_start'
+               AND object_id = OBJECT_ID(N'dbo.job_execution_history'))
+    CREATE INDEX ix_job_execution_history_job_start
+        ON dbo.job_execution_history (job_name, job_group, start_time DESC)
+        INCLUDE (status);
+
+-- Status totals and the stale RUNNING sweep (status = ? AND start_time < ?)
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'ix_job_execution_history_status_start'
+               AND object_id = OBJECT_ID(N'dbo.job_execution_history'))
+    CREATE INDEX ix_job_execution_history_status_start
+        ON dbo.job_execution_history (status, start_time);
+
+-- Cross-job history window, retention roll-up and range deletes
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'ix_job_execution_history_start'
+               AND object_id = OBJECT_ID(N'dbo.job_execution_history'))
+    CREATE INDEX ix_job_execution_history_start
+        ON dbo.job_execution_history (start_time);
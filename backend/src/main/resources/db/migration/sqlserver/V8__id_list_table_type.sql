@@ -0,0 +1,5 @@
+-- Table type for passing booking and name id sets as one table-valued parameter (IdSetQuery) instead of
+-- IN lists. H2 has no table types; the tests use IdSetQuery's VALUES fallback.
+
+IF TYPE_ID(N'dbo.vine_id_list') IS NULL
+    CREATE TYPE dbo.vine_id_list AS TABLE (id BIGINT NOT NULL PRIMARY KEY);
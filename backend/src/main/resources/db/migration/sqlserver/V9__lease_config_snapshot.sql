@@ -0,0 +1,4 @@
+-- Pinned configuration of the coordinating run on each partition lease (SysConfigService.exportSnapshot JSON)
+
+IF COL_LENGTH(N'dbo.booking_partition_lease', N'config_snapshot') IS NULL
+    ALTER TABLE dbo.booking_partition_lease ADD config_snapshot NVARCHAR(MAX) NULL;
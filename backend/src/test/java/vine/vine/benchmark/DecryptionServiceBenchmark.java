@@ -0,0 +1,98 @@
+package vine.vine.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import vine.vine.service.Impl.DecryptionService;
+
+/**
+ * Decrypting one stored AES secret, before and after DecryptionService cached its derived key, Cipher and
+ * decrypted values. {@code legacyPerCall} is the original implementation: SHA-256 key derivation,
+ * Cipher.getInstance and two array copies on every call.
+ * <p>
+ * Not part of the test run. After {@code mvn test-compile}, run {@link #main} from the IDE, or:
+ * {@code java -cp target/test-classes:<test classpath> vine.vine.benchmark.DecryptionServiceBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecryptionServiceBenchmark {
+
+    private static final String KEY = "BenchmarkKey123!";
+
+    private DecryptionService uncached;
+    private DecryptionService cached;
+    private String envelope;
+    private String payload;
+
+    @Setup
+    public void setUp() {
+        uncached = service(0);
+        cached = service(300);
+        envelope = uncached.encrypt("ftp-password");
+        payload = envelope.substring(envelope.lastIndexOf('$') + 1);
+    }
+
+    @Benchmark
+    public String legacyPerCall() throws Exception {
+        byte[] encryptedBytes = Base64.getDecoder().decode(payload);
+        MessageDigest sha = MessageDigest.getInstance("SHA-256");
+        SecretKeySpec keySpec = new SecretKeySpec(sha.digest(KEY.getBytes(StandardCharsets.UTF_8)), "AES");
+        byte[] iv = Arrays.copyOfRange(encryptedBytes, 0, 16);
+        byte[] cipherText = Arrays.copyOfRange(encryptedBytes, 16, encryptedBytes.length);
+        Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
+        cipher.init(Cipher.DECRYPT_MODE, keySpec, new IvParameterSpec(iv));
+        return new String(cipher.doFinal(cipherText), StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String cachedKeyAndCipher() {
+        return uncached.decrypt(envelope);
+    }
+
+    @Benchmark
+    public String cachedSecret() {
+        return cached.decrypt(envelope);
+    }
+
+    private static DecryptionService service(long cacheTtlSeconds) {
+        DecryptionService service = new DecryptionService();
+        ReflectionTestUtils.setField(service, "encryptionKey", KEY);
+        ReflectionTestUtils.setField(service, "algorithm", "AES");
+        ReflectionTestUtils.setField(service, "mode", "CBC");
+        ReflectionTestUtils.setField(service, "padding", "PKCS5Padding");
+        ReflectionTestUtils.setField(service, "keyVersion", 1);
+        ReflectionTestUtils.setField(service, "cacheTtlSeconds", cacheTtlSeconds);
+        ReflectionTestUtils.setField(service, "cacheMaxEntries", 256);
+        return service;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DecryptionServiceBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,54 @@
+package vine.vine.config;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class QuartzConfigTest {
+
+    private QuartzConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new QuartzConfig();
+        ReflectionTestUtils.setField(config, "threadCount", 10);
+        ReflectionTestUtils.setField(config, "partitions", 4);
+        ReflectionTestUtils.setField(config, "partitionMode", "local");
+        ReflectionTestUtils.setField(config, "probeEnabled", true);
+        ReflectionTestUtils.setField(config, "fastLaneEnabled", true);
+        ReflectionTestUtils.setField(config, "retentionEnabled", true);
+    }
+
+    @Test
+    void localPartitionsThatFitTheThreadPoolAreAccepted() {
+        ReflectionTestUtils.setField(config, "partitions", 6);
+
+        assertThatCode(config::validatePartitioning).doesNotThrowAnyException();
+    }
+
+    @Test
+    void localPartitionsOnAClusteredSchedulerAreRefused() {
+        ReflectionTestUtils.setField(config, "clustered", true);
+
+        assertThatThrownBy(config::validatePartitioning)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("clustered");
+
+        // Leased partitions are claimed through the database by any node
+        ReflectionTestUtils.setField(config, "partitionMode", "lease");
+        assertThatCode(config::validatePartitioning).doesNotThrowAnyException();
+    }
+
+    @Test
+    void localPartitionsBeyondTheThreadPoolAreRefused() {
+        // Coordinator, probe, fast lane and retention keep four of the ten threads
+        ReflectionTestUtils.setField(config, "partitions", 7);
+
+        assertThatThrownBy(config::validatePartitioning)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("needs 11 Quartz threads");
+    }
+}
@@ -0,0 +1,69 @@
+package vine.vine.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import vine.vine.config.WorkloadRoutingDataSource.Route;
+
+class WorkloadRoutingDataSourceTest {
+
+    private ReplicaLagMonitor lagMonitor;
+    private WorkloadRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        lagMonitor = mock(ReplicaLagMonitor.class);
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+        routing = new WorkloadRoutingDataSource(lagMonitor);
+    }
+
+    @AfterEach
+    void clearThread() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        WorkloadRoutingDataSource.clearExtractionRead();
+        WorkloadRoutingDataSource.clearExtraction();
+    }
+
+    @Test
+    void unmarkedReadOnlyTransactionsStayOnThePrimary() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(Route.WEB);
+
+        // Watermarks, scheduler config and lease polling on a job thread
+        WorkloadRoutingDataSource.markExtraction();
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(Route.EXTRACTION);
+    }
+
+    @Test
+    void markedExtractionReadsUseTheReplica() {
+        WorkloadRoutingDataSource.markExtraction();
+        WorkloadRoutingDataSource.markExtractionRead();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(Route.REPLICA);
+    }
+
+    @Test
+    void markedReadsFallBackToThePrimaryWhenTheReplicaLags() {
+        WorkloadRoutingDataSource.markExtraction();
+        WorkloadRoutingDataSource.markExtractionRead();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(lagMonitor.isReplicaUsable()).thenReturn(false);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(Route.EXTRACTION);
+    }
+
+    @Test
+    void markedWritesStayOnThePrimary() {
+        WorkloadRoutingDataSource.markExtraction();
+        WorkloadRoutingDataSource.markExtractionRead();
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(Route.EXTRACTION);
+    }
+}
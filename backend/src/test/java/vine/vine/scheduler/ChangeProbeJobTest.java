@@ -0,0 +1,84 @@
+package vine.vine.scheduler;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import vine.vine.domain.dto.response.ChangeProbe;
+import vine.vine.service.Impl.BookingFetcher;
+import vine.vine.service.SchedulerService;
+
+class ChangeProbeJobTest {
+
+    private static final LocalDateTime BOOKED = LocalDateTime.of(2026, 1, 5, 8, 30);
+
+    private BookingFetcher bookingFetcher;
+    private SchedulerService schedulerService;
+    private ChangeProbeJob job;
+    private JobExecutionContext context;
+
+    @BeforeEach
+    void setUp() {
+        bookingFetcher = mock(BookingFetcher.class);
+        schedulerService = mock(SchedulerService.class);
+        job = new ChangeProbeJob();
+        ReflectionTestUtils.setField(job, "bookingFetcher", bookingFetcher);
+        ReflectionTestUtils.setField(job, "schedulerService", schedulerService);
+        ReflectionTestUtils.setField(job, "debounceSeconds", 0L);
+        ReflectionTestUtils.setField(job, "maxIntervalMinutes", 30L);
+
+        // One JobDataMap across polls, as the persisted job state is
+        JobDetail jobDetail = JobBuilder.newJob(ChangeProbeJob.class).withIdentity("changeProbeJob").build();
+        context = mock(JobExecutionContext.class);
+        when(context.getJobDetail()).thenReturn(jobDetail);
+    }
+
+    @Test
+    void unchangedProbeTriggersNoRun() throws Exception {
+        when(bookingFetcher.fetchChangeProbe()).thenReturn(probe(120, 40));
+
+        for (int i = 0; i < 10; i++) {
+            job.execute(context);
+        }
+
+        verify(schedulerService, never()).triggerJobNow();
+    }
+
+    @Test
+    void changedProbeTriggersOneRun() throws Exception {
+        when(bookingFetcher.fetchChangeProbe()).thenReturn(probe(120, 40), probe(121, 40), probe(121, 40), probe(121, 40));
+
+        for (int i = 0; i < 4; i++) {
+            job.execute(context);
+        }
+
+        verify(schedulerService, times(1)).triggerJobNow();
+    }
+
+    @Test
+    void overdueProbeTriggersARunWithoutAChange() throws Exception {
+        when(bookingFetcher.fetchChangeProbe()).thenReturn(probe(120, 40));
+        job.execute(context);
+
+        context.getJobDetail().getJobDataMap().put(ChangeProbeJob.LAST_TRIGGERED, System.currentTimeMillis() - 31 * 60_000L);
+        job.execute(context);
+        job.execute(context);
+
+        verify(schedulerService, times(1)).triggerJobNow();
+    }
+
+    private static ChangeProbe probe(long activeBookings, long releases) {
+        return new ChangeProbe(BOOKED, activeBookings, BOOKED.plusHours(1), releases, BOOKED.plusHours(2), 7);
+    }
+}
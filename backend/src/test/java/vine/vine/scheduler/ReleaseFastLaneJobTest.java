@@ -0,0 +1,122 @@
+package vine.vine.scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import vine.vine.domain.dto.response.BookingNamePair;
+import vine.vine.domain.dto.response.ReleaseEvent;
+import vine.vine.service.Impl.BookingFetcher;
+import vine.vine.service.Impl.ChargesServiceImpl;
+import vine.vine.service.Impl.SysConfigService;
+import vine.vine.service.SchedulerService;
+
+class ReleaseFastLaneJobTest {
+
+    private static final LocalDateTime WATERMARK = LocalDateTime.of(2026, 1, 5, 8, 30);
+
+    private BookingFetcher bookingFetcher;
+    private ChargesServiceImpl chargesService;
+    private SchedulerService schedulerService;
+    private ReleaseFastLaneJob job;
+    private JobExecutionContext context;
+    private final List<List<Long>> shippedRuns = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        bookingFetcher = mock(BookingFetcher.class);
+        chargesService = mock(ChargesServiceImpl.class);
+        schedulerService = mock(SchedulerService.class);
+        job = new ReleaseFastLaneJob();
+        ReflectionTestUtils.setField(job, "bookingFetcher", bookingFetcher);
+        ReflectionTestUtils.setField(job, "chargesService", chargesService);
+        ReflectionTestUtils.setField(job, "schedulerService", schedulerService);
+        ReflectionTestUtils.setField(job, "sysConfigService", mock(SysConfigService.class));
+        ReflectionTestUtils.setField(job, "fileName", "VineRelease.dat");
+        ReflectionTestUtils.setField(job, "overlapSeconds", 300L);
+
+        when(schedulerService.isSchedulerRunning()).thenReturn(true);
+        when(schedulerService.findWatermark(ReleaseFastLaneJob.JOB_NAME, SchedulerService.DEFAULT_PARTITION))
+                .thenReturn(Optional.of(WATERMARK));
+        when(chargesService.shipReleasedBookings(any(), any(), anyString())).thenAnswer(invocation -> {
+            List<BookingNamePair> bookings = invocation.getArgument(0);
+            shippedRuns.add(bookings.stream().map(BookingNamePair::bookId).toList());
+            return bookings.size();
+        });
+
+        // One JobDataMap across polls, as the persisted job state is
+        JobDetail jobDetail = JobBuilder.newJob(ReleaseFastLaneJob.class).withIdentity(ReleaseFastLaneJob.JOB_NAME).build();
+        context = mock(JobExecutionContext.class, RETURNS_DEEP_STUBS);
+        when(context.getJobDetail()).thenReturn(jobDetail);
+        when(context.getTrigger().getKey().getName()).thenReturn("releaseFastLaneTrigger");
+    }
+
+    @Test
+    void firstStartSeedsTheWatermarkFromTheLatestRelease() throws Exception {
+        when(schedulerService.findWatermark(ReleaseFastLaneJob.JOB_NAME, SchedulerService.DEFAULT_PARTITION))
+                .thenReturn(Optional.empty());
+        when(bookingFetcher.fetchLatestReleaseTime()).thenReturn(Optional.of(WATERMARK));
+
+        job.execute(context);
+
+        verify(schedulerService).initializeWatermark(ReleaseFastLaneJob.JOB_NAME, SchedulerService.DEFAULT_PARTITION, WATERMARK);
+        verify(bookingFetcher, never()).fetchReleasesSince(any());
+    }
+
+    @Test
+    void pollsReReadTheOverlapWindowAndShipEachReleaseOnce() throws Exception {
+        ReleaseEvent sameTime = release(1, WATERMARK);
+        ReleaseEvent newer = release(2, WATERMARK.plusSeconds(20));
+        ReleaseEvent late = release(3, WATERMARK.minusSeconds(90));
+        when(bookingFetcher.fetchReleasesSince(WATERMARK.minusSeconds(300)))
+                .thenReturn(List.of(sameTime, newer), List.of(late, sameTime, newer), List.of(late, sameTime, newer));
+
+        job.execute(context);
+        job.execute(context);
+        job.execute(context);
+
+        // An equal-time release and a release committed after the watermark passed it are both shipped, once
+        assertThat(shippedRuns).containsExactly(List.of(1L, 2L), List.of(3L));
+        verify(schedulerService).recordJobCompletion(any(), any(), eq(1L), eq(WATERMARK), eq(WATERMARK),
+                eq(SchedulerService.DEFAULT_PARTITION), any());
+    }
+
+    @Test
+    void failedShipmentIsRetriedOnTheNextPoll() throws Exception {
+        when(bookingFetcher.fetchReleasesSince(any())).thenReturn(List.of(release(1, WATERMARK)));
+        doThrow(new RuntimeException("Release file upload failed")).doReturn(1)
+                .when(chargesService).shipReleasedBookings(any(), any(), anyString());
+
+        assertThatThrownBy(() -> job.execute(context)).isInstanceOf(JobExecutionException.class);
+        job.execute(context);
+
+        verify(schedulerService).recordJobFailure(any(), any(), eq("Release file upload failed"), any());
+        verify(schedulerService).recordJobCompletion(any(), any(), anyLong(), any(), any(), anyString(), any());
+    }
+
+    private static ReleaseEvent release(long bookId, LocalDateTime releaseTime) {
+        return new ReleaseEvent(bookId, 5000 + bookId, releaseTime);
+    }
+}
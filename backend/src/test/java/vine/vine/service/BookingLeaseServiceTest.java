@@ -0,0 +1,233 @@
+package vine.vine.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import vine.vine.domain.BookingPartitionLeaseEntity;
+import vine.vine.domain.BookingPartitionLeaseEntity.LeaseStatus;
+import vine.vine.domain.dto.response.BookingRecord;
+import vine.vine.repository.BookingPartitionFragmentRepository;
+import vine.vine.repository.BookingPartitionLeaseRepository;
+
+/**
+ * Lease lifecycle against the H2 schema, with several services standing in for several nodes
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingLeaseServiceTest {
+
+    private static final String RUN_ID = "lease-test";
+    private static final LocalDateTime RUN_FROM = LocalDateTime.of(2026, 1, 5, 0, 0);
+    private static final String SNAPSHOT = "{\"version\":1,\"values\":{}}";
+
+    @Autowired
+    private BookingPartitionLeaseRepository leaseRepository;
+
+    @Autowired
+    private BookingPartitionFragmentRepository fragmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private BookingLeaseService nodeA;
+    private BookingLeaseService nodeB;
+
+    @BeforeEach
+    void setUp() {
+        nodeA = node("node-a");
+        nodeB = node("node-b");
+    }
+
+    @AfterEach
+    void removeLeases() {
+        inTransaction(() -> {
+            jdbcTemplate.update("DELETE FROM booking_partition_fragment");
+            jdbcTemplate.update("DELETE FROM booking_partition_lease");
+        });
+    }
+
+    @Test
+    void liveLeaseIsNotClaimedTwice() {
+        nodeA.createLeases(RUN_ID, 1, RUN_FROM, SNAPSHOT);
+
+        BookingPartitionLeaseEntity lease = nodeA.claimNext().orElseThrow();
+
+        assertThat(lease.getOwner()).isEqualTo("node-a");
+        assertThat(lease.getAttempts()).isEqualTo(1);
+        assertThat(nodeB.claimNext()).isEmpty();
+        assertThat(nodeA.claimNext()).isEmpty();
+    }
+
+    @Test
+    void claimAndHeartbeatSetExpiryInDatabaseTime() {
+        nodeA.createLeases(RUN_ID, 1, RUN_FROM, SNAPSHOT);
+        BookingPartitionLeaseEntity lease = nodeA.claimNext().orElseThrow();
+
+        assertThat(secondsUntilExpiry(lease.getId())).isBetween(55L, 60L);
+
+        expire(lease.getId());
+        assertThat(nodeA.heartbeat(lease.getId())).isTrue();
+        assertThat(secondsUntilExpiry(lease.getId())).isBetween(55L, 60L);
+    }
+
+    @Test
+    void expiredLeaseIsReclaimedAndTheFormerOwnerCannotComplete() {
+        nodeA.createLeases(RUN_ID, 1, RUN_FROM, SNAPSHOT);
+        BookingPartitionLeaseEntity first = nodeA.claimNext().orElseThrow();
+
+        expire(first.getId());
+        BookingPartitionLeaseEntity second = nodeB.claimNext().orElseThrow();
+
+        assertThat(second.getId()).isEqualTo(first.getId());
+        assertThat(second.getOwner()).isEqualTo("node-b");
+        assertThat(second.getAttempts()).isEqualTo(2);
+
+        // The stalled owner comes back: its heartbeat and its completion are both rejected
+        assertThat(nodeA.heartbeat(first.getId())).isFalse();
+        assertThat(nodeA.completeLease(first, RUN_FROM, 1L, List.of(record(1, "stale")))).isFalse();
+        assertThat(nodeA.collectRecords(RUN_ID)).isEmpty();
+
+        assertThat(nodeB.completeLease(second, RUN_FROM, 2L, List.of(record(2, "b"), record(1, "a")))).isTrue();
+        assertThat(nodeB.collectRecords(RUN_ID)).extracting(BookingRecord::lines).containsExactly("a", "b");
+        assertThat(nodeB.countLeases(RUN_ID, LeaseStatus.COMPLETED)).isEqualTo(1);
+    }
+
+    @Test
+    void racingNodesClaimEveryLeaseExactlyOnce() throws Exception {
+        int partitions = 3;
+        int nodes = 8;
+        nodeA.createLeases(RUN_ID, partitions, RUN_FROM, SNAPSHOT);
+
+        ExecutorService executor = Executors.newFixedThreadPool(nodes);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Optional<BookingPartitionLeaseEntity>>> claims = new ArrayList<>();
+            for (int i = 0; i < nodes; i++) {
+                BookingLeaseService node = node("racer-" + i);
+                claims.add(executor.submit(() -> {
+                    start.await();
+                    return node.claimNext();
+                }));
+            }
+            start.countDown();
+
+            List<BookingPartitionLeaseEntity> won = new ArrayList<>();
+            for (Future<Optional<BookingPartitionLeaseEntity>> claim : claims) {
+                claim.get().ifPresent(won::add);
+            }
+
+            assertThat(won).hasSize(partitions);
+            assertThat(won).extracting(BookingPartitionLeaseEntity::getId).doesNotHaveDuplicates();
+            for (BookingPartitionLeaseEntity lease : nodeA.getLeases(RUN_ID)) {
+                assertThat(lease.getStatus()).isEqualTo(LeaseStatus.LEASED);
+                assertThat(lease.getAttempts()).isEqualTo(1);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedAttemptsAreRetriedUntilTheLeaseFails() {
+        nodeA.createLeases(RUN_ID, 1, RUN_FROM, SNAPSHOT);
+
+        for (int attempt = 1; attempt < 3; attempt++) {
+            BookingPartitionLeaseEntity lease = nodeA.claimNext().orElseThrow();
+            assertThat(lease.getAttempts()).isEqualTo(attempt);
+            nodeA.releaseLease(lease, "attempt " + attempt);
+            assertThat(nodeA.countLeases(RUN_ID, LeaseStatus.PENDING)).isEqualTo(1);
+        }
+
+        BookingPartitionLeaseEntity last = nodeB.claimNext().orElseThrow();
+        nodeB.releaseLease(last, "attempt 3");
+
+        // The coordinator fails the run as soon as one lease failed for good
+        assertThat(nodeA.countLeases(RUN_ID, LeaseStatus.FAILED)).isEqualTo(1);
+        assertThat(nodeA.getLeases(RUN_ID).get(0).getErrorMessage()).isEqualTo("attempt 3");
+        assertThat(nodeA.claimNext()).isEmpty();
+    }
+
+    @Test
+    void abandonedRunLeavesNoLeasesOrFragments() {
+        nodeA.createLeases(RUN_ID, 2, RUN_FROM, SNAPSHOT);
+        BookingPartitionLeaseEntity done = nodeA.claimNext().orElseThrow();
+        BookingPartitionLeaseEntity running = nodeB.claimNext().orElseThrow();
+        assertThat(nodeA.completeLease(done, RUN_FROM, 1L, List.of(record(1, "a")))).isTrue();
+
+        nodeA.abandonRun(RUN_ID, "upload failed");
+
+        assertThat(nodeA.getLeases(RUN_ID)).isEmpty();
+        assertThat(nodeA.collectRecords(RUN_ID)).isEmpty();
+        // The worker still extracting a partition of the abandoned run stores nothing
+        assertThat(nodeB.completeLease(running, RUN_FROM, 2L, List.of(record(2, "b")))).isFalse();
+        assertThat(nodeB.collectRecords(RUN_ID)).isEmpty();
+    }
+
+    @Test
+    void runsOfACrashedCoordinatorAreSwept() {
+        nodeA.createLeases("crashed", 2, RUN_FROM, SNAPSHOT);
+        BookingPartitionLeaseEntity lease = nodeA.claimNext().orElseThrow();
+        assertThat(nodeA.completeLease(lease, RUN_FROM, 1L, List.of(record(1, "a")))).isTrue();
+        inTransaction(() -> jdbcTemplate.update(
+                "UPDATE booking_partition_lease SET created_at = DATEADD(HOUR, -25, created_at) WHERE run_id = 'crashed'"));
+        nodeA.createLeases(RUN_ID, 1, RUN_FROM, SNAPSHOT);
+
+        assertThat(nodeB.sweepStaleRuns()).isEqualTo(1);
+
+        assertThat(nodeA.getLeases("crashed")).isEmpty();
+        assertThat(nodeA.collectRecords("crashed")).isEmpty();
+        assertThat(nodeA.getLeases(RUN_ID)).hasSize(1);
+    }
+
+    private BookingLeaseService node(String nodeId) {
+        BookingLeaseService node = new BookingLeaseService(leaseRepository, fragmentRepository, transactionManager);
+        ReflectionTestUtils.setField(node, "nodeId", nodeId);
+        ReflectionTestUtils.setField(node, "leaseSeconds", 60L);
+        ReflectionTestUtils.setField(node, "maxAttempts", 3);
+        ReflectionTestUtils.setField(node, "retentionHours", 24L);
+        return node;
+    }
+
+    private void expire(Long leaseId) {
+        inTransaction(() -> jdbcTemplate.update(
+                "UPDATE booking_partition_lease SET lease_expires_at = DATEADD(SECOND, -1, CURRENT_TIMESTAMP) WHERE lease_id = ?",
+                leaseId));
+    }
+
+    private long secondsUntilExpiry(Long leaseId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT DATEDIFF(SECOND, CURRENT_TIMESTAMP, lease_expires_at) FROM booking_partition_lease WHERE lease_id = ?",
+                Long.class, leaseId);
+    }
+
+    private static BookingRecord record(long bookId, String lines) {
+        return new BookingRecord(bookId, lines);
+    }
+
+    // The pools run with auto-commit off
+    private void inTransaction(Runnable work) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> work.run());
+    }
+}
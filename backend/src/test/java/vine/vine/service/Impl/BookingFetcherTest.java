@@ -0,0 +1,107 @@
+package vine.vine.service.Impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import vine.vine.domain.dto.response.BookingNamePair;
+
+/**
+ * The roster partitions of a run together return every booking of the unpartitioned roster exactly once
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingFetcherTest {
+
+    private static final LocalDateTime LAST_RUN = LocalDateTime.of(2026, 1, 5, 0, 0);
+    private static final int BOOKINGS = 101;
+
+    @Autowired
+    private BookingFetcher bookingFetcher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Active bookings, bookings released since the last run (some twice) and bookings released before it, which
+     * the roster leaves out
+     */
+    @BeforeEach
+    void seedBookings() {
+        List<Object[]> bookings = new ArrayList<>();
+        List<Object[]> releases = new ArrayList<>();
+        Timestamp booked = Timestamp.valueOf(LAST_RUN.minusDays(3));
+        int releaseId = 1;
+
+        for (int i = 0; i < BOOKINGS; i++) {
+            long bookId = 7000 + 3L * i;
+            String status = i % 3 == 0 ? "A" : "R";
+            bookings.add(new Object[]{bookId, booked, "SO", booked, 5000 + i, status});
+            if (i % 3 == 1) {
+                releases.add(new Object[]{releaseId++, bookId, Timestamp.valueOf(LAST_RUN.plusHours(i))});
+                releases.add(new Object[]{releaseId++, bookId, Timestamp.valueOf(LAST_RUN.plusHours(i + 1))});
+            } else if (i % 3 == 2) {
+                releases.add(new Object[]{releaseId++, bookId, Timestamp.valueOf(LAST_RUN.minusHours(i))});
+            }
+        }
+
+        inTransaction(() -> {
+            jdbcTemplate.batchUpdate("INSERT INTO jmmain (book_id, bookdate, agency, addtime, name_id, bkstatus) VALUES (?, ?, ?, ?, ?, ?)", bookings);
+            jdbcTemplate.batchUpdate("INSERT INTO jrelease (jreleaseid, book_id, releasetime, relsreason) VALUES (?, ?, ?, 'BOND')", releases);
+        });
+    }
+
+    @AfterEach
+    void removeBookings() {
+        inTransaction(() -> {
+            jdbcTemplate.update("DELETE FROM jrelease");
+            jdbcTemplate.update("DELETE FROM jmmain");
+        });
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 3, 4, 7})
+    void partitionsCoverEveryBookingExactlyOnce(int partitionCount) {
+        List<BookingNamePair> roster = bookingFetcher.fetchBookingAndNameIds(LAST_RUN);
+
+        List<BookingNamePair> partitioned = new ArrayList<>();
+        for (int i = 0; i < partitionCount; i++) {
+            List<BookingNamePair> partition = bookingFetcher.fetchBookingAndNameIds(LAST_RUN, partitionCount, i);
+            int index = i;
+            assertThat(partition).allMatch(pair -> pair.bookId() % partitionCount == index);
+            partitioned.addAll(partition);
+        }
+
+        assertThat(roster).hasSize(2 * ((BOOKINGS + 2) / 3)).doesNotHaveDuplicates();
+        assertThat(partitioned).doesNotHaveDuplicates().containsExactlyInAnyOrderElementsOf(roster);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 5})
+    void singlePartitionIgnoresTheIndex(int partitionIndex) {
+        assertThat(bookingFetcher.fetchBookingAndNameIds(LAST_RUN, 1, partitionIndex))
+                .containsExactlyElementsOf(bookingFetcher.fetchBookingAndNameIds(LAST_RUN));
+    }
+
+    // The pools run with auto-commit off
+    private void inTransaction(Runnable work) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> work.run());
+    }
+}
@@ -0,0 +1,61 @@
+package vine.vine.service.Impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import vine.vine.config.ServiceLog;
+import vine.vine.domain.VineSystemConfig;
+import vine.vine.domain.dto.response.BookingRecord;
+
+class ChargesServiceImplTest {
+
+    @TempDir
+    Path outputDir;
+
+    private TransferService transferService;
+    private ChargesServiceImpl chargesService;
+    private VineSystemConfig config;
+
+    @BeforeEach
+    void setUp() {
+        transferService = mock(TransferService.class);
+        chargesService = new ChargesServiceImpl(mock(BookingFetcher.class), mock(ReferenceDataCache.class),
+                mock(SysConfigService.class), mock(ServiceLog.class), transferService,
+                mock(BookingExtractionReader.class), mock(BookingChunkLoader.class));
+        config = mock(VineSystemConfig.class);
+        when(config.getVineNewVineFilePath()).thenReturn(outputDir.toString());
+        when(config.getVineInterFile()).thenReturn("Vine.dat");
+    }
+
+    @Test
+    void failedUploadFailsTheRun() {
+        when(transferService.ftpDataAndMugshotFiles(config)).thenReturn(false);
+
+        assertThatThrownBy(() -> chargesService.writeAndTransfer(List.of(record(2), record(1)), config))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("upload failed");
+    }
+
+    @Test
+    void recordsAreWrittenInBookIdOrder() throws Exception {
+        when(transferService.ftpDataAndMugshotFiles(config)).thenReturn(true);
+
+        chargesService.writeAndTransfer(List.of(record(2), record(1)), config);
+
+        assertThat(Files.readString(outputDir.resolve("Vine.dat"))).isEqualTo("1\n2\n");
+    }
+
+    private static BookingRecord record(long bookId) {
+        return new BookingRecord(bookId, bookId + "\n");
+    }
+}
@@ -0,0 +1,169 @@
+package vine.vine.service.Impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import vine.vine.domain.VineSystemConfig;
+import vine.vine.domain.dto.response.BookingRecord;
+import vine.vine.service.RunMetrics;
+import vine.vine.service.RunMetrics.Stage;
+
+/**
+ * Guards the statement count of the extraction against N+1 regressions: lookups must be loaded per chunk, so the
+ * statements of a run grow with the number of chunks, not with the number of bookings.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ChargesServiceQueryCountTest {
+
+    // Roster query and the AGCY code table, once per run
+    private static final int STATEMENTS_PER_RUN = 2;
+
+    // BookingChunkLoader: prisoners, aliases, arrests, bookings, facilities, releases, charges, images
+    private static final int STATEMENTS_PER_CHUNK = 8;
+
+    private static final LocalDateTime BOOKED = LocalDateTime.of(2026, 1, 5, 8, 30);
+
+    @Autowired
+    private ChargesServiceImpl chargesService;
+
+    @Autowired
+    private SysConfigService sysConfigService;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${vine.extraction.chunk-size}")
+    private int chunkSize;
+
+    @AfterEach
+    void removeBookings() {
+        inTransaction(() -> {
+            for (String table : List.of("archrg", "armain", "jfachist", "jrelease", "jmmain", "nmmain")) {
+                jdbcTemplate.update("DELETE FROM " + table);
+            }
+        });
+    }
+
+    @Test
+    void statementsGrowWithChunksNotBookings() {
+        int bookings = chunkSize + chunkSize / 2;
+        seedBookings(bookings);
+
+        RunMetrics metrics = extract(bookings);
+
+        long chunks = (bookings + chunkSize - 1) / chunkSize;
+        assertThat(metrics.getTotalQueries())
+                .as("statements for %d bookings in %d chunks", bookings, chunks)
+                .isLessThanOrEqualTo(STATEMENTS_PER_RUN + STATEMENTS_PER_CHUNK * chunks);
+        assertThat((double) metrics.getTotalQueries() / bookings).isLessThan(0.1);
+    }
+
+    @Test
+    void singleBookingUsesTheSameStatementsAsAFullChunk() {
+        seedBookings(1);
+        long oneBooking = extract(1).getTotalQueries();
+        removeBookings();
+
+        seedBookings(chunkSize);
+        long fullChunk = extract(chunkSize).getTotalQueries();
+
+        assertThat(oneBooking).isEqualTo(STATEMENTS_PER_RUN + STATEMENTS_PER_CHUNK);
+        assertThat(fullChunk).isEqualTo(oneBooking);
+    }
+
+    @Test
+    void runTotalsCountRowsAndEntities() {
+        int bookings = 20;
+        seedBookings(bookings);
+
+        RunMetrics metrics = extract(bookings);
+
+        assertThat(metrics.getBookings()).isEqualTo(bookings);
+        // Roster rows plus at least one prisoner, arrest and booking row each
+        assertThat(metrics.getTotalJdbcRows()).isGreaterThanOrEqualTo(4L * bookings);
+        // Only the one AGCY code table row is loaded as an entity; booking lookups are projections
+        assertThat(metrics.getTotalEntities()).isEqualTo(1);
+        assertThat(metrics.toJson()).contains("\"jdbcRows\"", "\"entities\"");
+        assertThat(metrics.summary()).startsWith(bookings + " bookings");
+    }
+
+    private RunMetrics extract(int expectedRecords) {
+        VineSystemConfig config = sysConfigService.pinConfig();
+        referenceDataCache.invalidateAll();
+        RunMetrics metrics = RunMetrics.start();
+        try {
+            List<BookingRecord> records = chargesService.extractPartition(BOOKED.minusDays(1), config, 1, 0);
+            assertThat(records).hasSize(expectedRecords);
+            assertThat(metrics.toJson()).contains("\"" + Stage.LOOKUP.name().toLowerCase() + "\"");
+            return metrics;
+        } finally {
+            RunMetrics.clear();
+        }
+    }
+
+    /**
+     * Active bookings with an AKA name, two arrests, two housing events, a release and three charges each
+     */
+    private void seedBookings(int count) {
+        List<Object[]> names = new ArrayList<>();
+        List<Object[]> aliases = new ArrayList<>();
+        List<Object[]> bookingRows = new ArrayList<>();
+        List<Object[]> arrests = new ArrayList<>();
+        List<Object[]> facilities = new ArrayList<>();
+        List<Object[]> releases = new ArrayList<>();
+        List<Object[]> charges = new ArrayList<>();
+        Timestamp booked = Timestamp.valueOf(BOOKED);
+
+        for (int i = 0; i < count; i++) {
+            long bookId = 1000 + i;
+            long nameId = 5000 + i;
+            names.add(new Object[]{nameId, "ST" + i, "First" + i, "Last" + i, "1980-01-0" + (1 + i % 9)});
+            aliases.add(new Object[]{9000 + i, "Alias" + i, "Aka" + i, String.valueOf(nameId)});
+            bookingRows.add(new Object[]{bookId, booked, "SO", booked, nameId});
+            arrests.add(new Object[]{20000 + 2L * i, bookId, "CASE" + i});
+            arrests.add(new Object[]{20001 + 2L * i, bookId, "LATER" + i});
+            facilities.add(new Object[]{30000 + 2L * i, bookId, "OLD", Timestamp.valueOf(BOOKED.plusHours(1))});
+            facilities.add(new Object[]{30001 + 2L * i, bookId, "MAIN", Timestamp.valueOf(BOOKED.plusHours(2))});
+            releases.add(new Object[]{40000 + i, bookId, Timestamp.valueOf(BOOKED.plusDays(1)), "BOND"});
+            charges.add(new Object[]{50000 + 3L * i, bookId, "ARR1", 20000 + 2L * i});
+            charges.add(new Object[]{50001 + 3L * i, bookId, "ARR2", 20000 + 2L * i});
+            charges.add(new Object[]{50002 + 3L * i, bookId, "LATER", 20001 + 2L * i});
+        }
+
+        inTransaction(() -> {
+            jdbcTemplate.batchUpdate("INSERT INTO nmmain (name_id, state_id, firstname, lastname, dob) VALUES (?, ?, ?, ?, ?)", names);
+            jdbcTemplate.batchUpdate("INSERT INTO nmmain (name_id, firstname, lastname, nametype, alias_id) VALUES (?, ?, ?, 'AKA', ?)", aliases);
+            jdbcTemplate.batchUpdate("INSERT INTO jmmain (book_id, bookdate, agency, addtime, name_id, bkstatus, faci_id) VALUES (?, ?, ?, ?, ?, 'A', 1)", bookingRows);
+            jdbcTemplate.batchUpdate("INSERT INTO armain (armainid, book_id, case_id) VALUES (?, ?, ?)", arrests);
+            jdbcTemplate.batchUpdate("INSERT INTO jfachist (jfachistid, book_id, facility, eventdate) VALUES (?, ?, ?, ?)", facilities);
+            jdbcTemplate.batchUpdate("INSERT INTO jrelease (jreleaseid, book_id, releasetime, relsreason) VALUES (?, ?, ?, ?)", releases);
+            jdbcTemplate.batchUpdate("INSERT INTO archrg (archrgid, book_id, arr_chrg, armainid) VALUES (?, ?, ?, ?)", charges);
+        });
+    }
+
+    // The pools run with auto-commit off
+    private void inTransaction(Runnable work) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> work.run());
+    }
+}
@@ -0,0 +1,126 @@
+package vine.vine.service.Impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Base64;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class DecryptionServiceTest {
+
+    private static final String KEY = "TestKey123!";
+
+    @Test
+    void expiredSecretsAreSweptWhenTheCacheFills() throws InterruptedException {
+        DecryptionService service = service(KEY, 1, 2);
+        String first = service.encrypt("first");
+        String second = service.encrypt("second");
+
+        service.decrypt(first);
+        service.decrypt(second);
+        assertThat(service.cachedSecretCount()).isEqualTo(2);
+
+        Thread.sleep(1100);
+        assertThat(service.decrypt(service.encrypt("third"))).isEqualTo("third");
+
+        assertThat(service.cachedSecretCount()).isEqualTo(1);
+    }
+
+    @Test
+    void cacheStaysWithinItsBound() {
+        DecryptionService service = service(KEY, 300, 8);
+
+        for (int i = 0; i < 50; i++) {
+            assertThat(service.decrypt(service.encrypt("secret-" + i))).isEqualTo("secret-" + i);
+        }
+
+        assertThat(service.cachedSecretCount()).isLessThanOrEqualTo(8);
+    }
+
+    @Test
+    void legacyAesValueIsRewrittenIntoAnEnvelope() {
+        DecryptionService service = service(KEY, 0, 16);
+        String legacy = payloadOf(service.encrypt("ftp-p@ssw0rd"));
+
+        String envelope = service.reencryptLegacyValue(legacy).orElseThrow();
+
+        assertThat(service.isEnvelope(envelope)).isTrue();
+        assertThat(service.decrypt(envelope)).isEqualTo("ftp-p@ssw0rd");
+    }
+
+    @Test
+    void plainValuesAreLeftUntouched() {
+        DecryptionService service = service(KEY, 0, 16);
+
+        assertThat(service.reencryptLegacyValue("Passw0rd!")).isEmpty();
+        assertThat(service.reencryptLegacyValue("dGVzdA==")).isEmpty();
+        assertThat(service.reencryptLegacyValue("sftp.example.org")).isEmpty();
+    }
+
+    @Test
+    void base64ValueThatPassesThePaddingCheckIsLeftUntouched() {
+        DecryptionService service = service(KEY, 0, 16);
+        Random random = new Random(42);
+
+        // About one random block in 256 ends in valid PKCS5 padding and decrypts without an error
+        int decryptable = 0;
+        for (int i = 0; i < 20_000 && decryptable < 5; i++) {
+            byte[] bytes = new byte[32];
+            random.nextBytes(bytes);
+            String value = Base64.getEncoder().encodeToString(bytes);
+            if (!decryptsAsAes(service, value)) {
+                continue;
+            }
+            decryptable++;
+            assertThat(service.reencryptLegacyValue(value)).as("value %s", value).isEmpty();
+        }
+
+        assertThat(decryptable).isEqualTo(5);
+    }
+
+    @Test
+    void envelopeValuesAreNotMigratedAgain() {
+        DecryptionService service = service(KEY, 0, 16);
+        String envelope = service.encrypt("secret");
+
+        assertThat(service.reencryptLegacyValue(envelope)).isEmpty();
+        assertThat(service.reencryptLegacyValue(null)).isEmpty();
+        assertThat(service.reencryptLegacyValue(" ")).isEmpty();
+    }
+
+    @Test
+    void envelopeWithAnotherKeyVersionIsReturnedAsStored() {
+        DecryptionService service = service(KEY, 0, 16);
+        String envelope = service.encrypt("secret");
+        ReflectionTestUtils.setField(service, "keyVersion", 2);
+
+        assertThat(service.decrypt(envelope)).isEqualTo(envelope);
+    }
+
+    private static boolean decryptsAsAes(DecryptionService service, String value) {
+        try {
+            ReflectionTestUtils.invokeMethod(service, "decryptAESBytes", value);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static String payloadOf(String envelope) {
+        return envelope.substring(envelope.lastIndexOf('$') + 1);
+    }
+
+    static DecryptionService service(String key, long cacheTtlSeconds, int cacheMaxEntries) {
+        DecryptionService service = new DecryptionService();
+        ReflectionTestUtils.setField(service, "encryptionKey", key);
+        ReflectionTestUtils.setField(service, "algorithm", "AES");
+        ReflectionTestUtils.setField(service, "mode", "CBC");
+        ReflectionTestUtils.setField(service, "padding", "PKCS5Padding");
+        ReflectionTestUtils.setField(service, "keyVersion", 1);
+        ReflectionTestUtils.setField(service, "cacheTtlSeconds", cacheTtlSeconds);
+        ReflectionTestUtils.setField(service, "cacheMaxEntries", cacheMaxEntries);
+        return service;
+    }
+}
@@ -0,0 +1,109 @@
+package vine.vine.service.Impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Table type detection per target database, with mocked primary and replica connections
+ */
+class IdSetQueryTest {
+
+    private static final String PRIMARY = "jdbc:sqlserver://primary:1433;databaseName=jail";
+    private static final String REPLICA = "jdbc:sqlserver://replica:1433;databaseName=jail";
+    private static final String SQL = "SELECT book_id FROM jmmain WHERE book_id IN (SELECT ids.id FROM " + IdSetQuery.IDS + ")";
+    private static final RowMapper<Long> ROW_MAPPER = (rs, rowNum) -> rs.getLong(1);
+
+    private JdbcTemplate jdbcTemplate;
+    private IdSetQuery idSetQuery;
+
+    // Target of the next query, as the routing data source would pick it
+    private Connection current;
+    private Connection primary;
+    private Connection replica;
+    private final List<String> executed = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = sqlServer(PRIMARY, true);
+        replica = sqlServer(REPLICA, false);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+                .thenAnswer(invocation -> invocation.<ConnectionCallback<?>>getArgument(0).doInConnection(current));
+        when(jdbcTemplate.query(anyString(), any(PreparedStatementSetter.class), any(RowMapper.class)))
+                .thenAnswer(invocation -> {
+                    executed.add(invocation.getArgument(0));
+                    return List.of();
+                });
+
+        ExtractionLimiter limiter = mock(ExtractionLimiter.class);
+        when(limiter.execute(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+        idSetQuery = new IdSetQuery(jdbcTemplate, limiter);
+        ReflectionTestUtils.setField(idSetQuery, "mode", "auto");
+    }
+
+    @Test
+    void tableTypeIsDetectedPerTargetDatabase() {
+        current = primary;
+        idSetQuery.query(SQL, List.of(1L, 2L), ROW_MAPPER);
+        current = replica;
+        idSetQuery.query(SQL, List.of(1L, 2L), ROW_MAPPER);
+        current = primary;
+        idSetQuery.query(SQL, List.of(1L, 2L), ROW_MAPPER);
+
+        assertThat(executed).hasSize(3);
+        assertThat(executed.get(0)).contains("? AS ids");
+        assertThat(executed.get(1)).contains("(VALUES ");
+        assertThat(executed.get(2)).contains("? AS ids");
+    }
+
+    @Test
+    void missingTableTypeFallsBackToValues() {
+        when(jdbcTemplate.query(anyString(), any(PreparedStatementSetter.class), any(RowMapper.class)))
+                .thenAnswer(invocation -> {
+                    String sql = invocation.getArgument(0);
+                    executed.add(sql);
+                    if (sql.contains("? AS ids")) {
+                        throw new BadSqlGrammarException("query", sql,
+                                new SQLException("Cannot find data type dbo.vine_id_list.", "S0001", 2715));
+                    }
+                    return List.of(1L);
+                });
+        current = primary;
+
+        assertThat(idSetQuery.query(SQL, List.of(1L), ROW_MAPPER)).containsExactly(1L);
+        assertThat(idSetQuery.query(SQL, List.of(1L), ROW_MAPPER)).containsExactly(1L);
+
+        // Only the first query tried the table-valued parameter
+        assertThat(executed).hasSize(3);
+        assertThat(executed.get(0)).contains("? AS ids");
+        assertThat(executed.subList(1, 3)).allMatch(sql -> sql.contains("(VALUES "));
+    }
+
+    private static Connection sqlServer(String url, boolean hasTableType) throws SQLException {
+        Connection connection = mock(Connection.class, RETURNS_DEEP_STUBS);
+        when(connection.getMetaData().getURL()).thenReturn(url);
+        when(connection.getMetaData().getDatabaseProductName()).thenReturn("Microsoft SQL Server");
+        when(connection.prepareStatement("SELECT TYPE_ID(?)").executeQuery().next()).thenReturn(true);
+        when(connection.prepareStatement("SELECT TYPE_ID(?)").executeQuery().getObject(1)).thenReturn(hasTableType ? 257 : null);
+        return connection;
+    }
+}
@@ -0,0 +1,134 @@
+package vine.vine.service.Impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import vine.vine.domain.VineSystemConfig;
+import vine.vine.domain.dto.request.SystemConfigUpdateRequest;
+
+/**
+ * Duplicate sys_name rows: the lowest sys_cfgid is the one that counts, on startup, on keyed reads and after writes
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SysConfigServiceTest {
+
+    // Seeded by db/testdata/R__host_tables.sql
+    private static final long JAIL_ID_ROW = 3;
+    private static final String JAIL_ID_KEY = "gcvinejailidnumber";
+    private static final String JAIL_ID = "TESTJAIL";
+
+    private static final long DUPLICATE_ROW = 100;
+
+    @Autowired
+    private SysConfigService sysConfigService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void addDuplicate() {
+        inTransaction(() -> jdbcTemplate.update("INSERT INTO sys_cfg (sys_cfgid, sysname, defavalue) VALUES (?, ?, ?)",
+                DUPLICATE_ROW, JAIL_ID_KEY.toUpperCase(), "DUPLICATE"));
+    }
+
+    @AfterEach
+    void restoreRows() {
+        inTransaction(() -> {
+            jdbcTemplate.update("DELETE FROM sys_cfg WHERE sys_cfgid IN (?, ?)", JAIL_ID_ROW, DUPLICATE_ROW);
+            jdbcTemplate.update("INSERT INTO sys_cfg (sys_cfgid, sysname, defavalue) VALUES (?, ?, ?)",
+                    JAIL_ID_ROW, JAIL_ID_KEY, JAIL_ID);
+            jdbcTemplate.update("INSERT INTO sys_cfg (sys_cfgid, sysname, defavalue) VALUES (?, ?, ?)",
+                    DUPLICATE_ROW, "gcvineunused", "x");
+        });
+        // Deleting the placeholder re-reads the vine rows, which are back to the seeded state
+        sysConfigService.deleteConfig(DUPLICATE_ROW);
+        assertThat(sysConfigService.getConfig().getVineJailidnumber()).isEqualTo(JAIL_ID);
+    }
+
+    @Test
+    void deletingTheIndexedRowFallsBackToItsDuplicate() {
+        assertThat(sysConfigService.getConfigByName(JAIL_ID_KEY).getId()).isEqualTo(JAIL_ID_ROW);
+
+        assertThat(sysConfigService.deleteConfig(JAIL_ID_ROW)).isTrue();
+
+        assertThat(sysConfigService.getConfigByName(JAIL_ID_KEY).getId()).isEqualTo(DUPLICATE_ROW);
+        assertThat(sysConfigService.getConfig().getVineJailidnumber()).isEqualTo("DUPLICATE");
+    }
+
+    @Test
+    void renamingTheIndexedRowFallsBackToItsDuplicate() {
+        SystemConfigUpdateRequest rename = new SystemConfigUpdateRequest();
+        rename.setSysName("gcvinejailidnumber_old");
+        rename.setDefaValue(JAIL_ID);
+
+        sysConfigService.updateConfig(JAIL_ID_ROW, rename);
+
+        assertThat(sysConfigService.getConfigByName(JAIL_ID_KEY).getId()).isEqualTo(DUPLICATE_ROW);
+        assertThat(sysConfigService.getConfig().getVineJailidnumber()).isEqualTo("DUPLICATE");
+    }
+
+    @Test
+    void updatingTheDuplicateDoesNotTakeOverTheName() {
+        SystemConfigUpdateRequest update = new SystemConfigUpdateRequest();
+        update.setSysName(JAIL_ID_KEY);
+        update.setDefaValue("CHANGED");
+
+        sysConfigService.updateConfig(DUPLICATE_ROW, update);
+
+        assertThat(sysConfigService.getConfigByName(JAIL_ID_KEY).getId()).isEqualTo(JAIL_ID_ROW);
+        assertThat(sysConfigService.getConfig().getVineJailidnumber()).isEqualTo(JAIL_ID);
+    }
+
+    @Test
+    void exportedSnapshotIsRebuiltWithoutBeingPublished() {
+        VineSystemConfig pinned = sysConfigService.pinConfig();
+        String snapshot = sysConfigService.exportSnapshot(pinned);
+
+        SystemConfigUpdateRequest update = new SystemConfigUpdateRequest();
+        update.setSysName(JAIL_ID_KEY);
+        update.setDefaValue("CHANGED");
+        sysConfigService.updateConfig(JAIL_ID_ROW, update);
+
+        VineSystemConfig imported = sysConfigService.importSnapshot(snapshot);
+
+        assertThat(imported).isEqualTo(pinned);
+        assertThat(imported.getVineFtpPassword()).isEqualTo(pinned.getVineFtpPassword());
+        assertThat(sysConfigService.getConfig().getVineJailidnumber()).isEqualTo("CHANGED");
+    }
+
+    @Test
+    void directDatabaseEditIsPickedUpByTheNextCheck() {
+        ReflectionTestUtils.setField(sysConfigService, "pollIntervalSeconds", 0L);
+        try {
+            sysConfigService.refreshIfChanged();
+
+            // Same length, so only the checksum part of the fingerprint tells the rows apart
+            inTransaction(() -> jdbcTemplate.update("UPDATE sys_cfg SET defavalue = ? WHERE sys_cfgid = ?",
+                    "TESTJAIM", JAIL_ID_ROW));
+            sysConfigService.refreshIfChanged();
+
+            assertThat(sysConfigService.getConfig().getVineJailidnumber()).isEqualTo("TESTJAIM");
+        } finally {
+            ReflectionTestUtils.setField(sysConfigService, "pollIntervalSeconds", 30L);
+        }
+    }
+
+    // The pools run with auto-commit off
+    private void inTransaction(Runnable work) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> work.run());
+    }
+}
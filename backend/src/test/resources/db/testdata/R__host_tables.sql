@@ -0,0 +1,122 @@
+-- Host system tables read by the application, with the vine configuration it requires at startup
+
+CREATE TABLE IF NOT EXISTS sys_cfg (
+    sys_cfgid BIGINT       NOT NULL PRIMARY KEY,
+    sysname   VARCHAR(100) NOT NULL,
+    defavalue VARCHAR(500)
+);
+
+CREATE TABLE IF NOT EXISTS systab1 (
+    systab1id INT          NOT NULL PRIMARY KEY,
+    code_agcy VARCHAR(20),
+    code_key  VARCHAR(20),
+    sys_msg   VARCHAR(200)
+);
+
+-- Jail management tables the extraction reads; the tests seed their own rows
+CREATE TABLE IF NOT EXISTS jmmain (
+    book_id   BIGINT      NOT NULL PRIMARY KEY,
+    bookdate  TIMESTAMP   NOT NULL,
+    agency    VARCHAR(10) NOT NULL,
+    addtime   TIMESTAMP   NOT NULL,
+    name_id   BIGINT      NOT NULL,
+    bkstatus  VARCHAR(1),
+    faci_id   BIGINT
+);
+
+CREATE TABLE IF NOT EXISTS jrelease (
+    jreleaseid  INT         NOT NULL PRIMARY KEY,
+    book_id     BIGINT,
+    releasetime TIMESTAMP,
+    relsreason  VARCHAR(12)
+);
+
+CREATE TABLE IF NOT EXISTS jfachist (
+    jfachistid BIGINT      NOT NULL PRIMARY KEY,
+    book_id    BIGINT,
+    facility   VARCHAR(10),
+    section    VARCHAR(10),
+    unit       VARCHAR(10),
+    bed        VARCHAR(10),
+    eventdate  TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS nmmain (
+    name_id    BIGINT      NOT NULL PRIMARY KEY,
+    state_id   VARCHAR(25),
+    firstname  VARCHAR(30),
+    nametype   VARCHAR(5),
+    alias_id   VARCHAR(20),
+    middlename VARCHAR(30),
+    lastname   VARCHAR(30),
+    dob        VARCHAR(20),
+    race       VARCHAR(1),
+    sex        VARCHAR(1),
+    height     VARCHAR(4),
+    weight     VARCHAR(4),
+    ssn        VARCHAR(9),
+    streetnbr  VARCHAR(10),
+    street     VARCHAR(50),
+    city       VARCHAR(20),
+    state      VARCHAR(2),
+    zip        VARCHAR(10),
+    birthplace VARCHAR(20),
+    dr_lic     VARCHAR(25),
+    dl_state   VARCHAR(2),
+    marital    VARCHAR(1),
+    occupation VARCHAR(15),
+    eye        VARCHAR(10),
+    hair       VARCHAR(10),
+    employer   VARCHAR(30),
+    hphone     VARCHAR(10),
+    wphone     VARCHAR(15),
+    mphone     VARCHAR(10)
+);
+
+CREATE TABLE IF NOT EXISTS armain (
+    armainid BIGINT      NOT NULL PRIMARY KEY,
+    book_id  BIGINT,
+    case_id  VARCHAR(25),
+    date_arr TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS archrg (
+    archrgid BIGINT      NOT NULL PRIMARY KEY,
+    book_id  BIGINT,
+    arr_chrg VARCHAR(25),
+    fel_misd VARCHAR(10),
+    chrg_cnt VARCHAR(4),
+    chrg_seq VARCHAR(4),
+    bondamt  VARCHAR(15),
+    bondtype VARCHAR(4),
+    armainid BIGINT,
+    chrgdesc VARCHAR(60)
+);
+
+CREATE TABLE IF NOT EXISTS sys_img (
+    sys_imgid BIGINT     NOT NULL PRIMARY KEY,
+    sysid     BIGINT,
+    syskey    VARCHAR(1),
+    ext1      INT,
+    ext2      INT,
+    addtime   TIMESTAMP
+);
+
+MERGE INTO sys_cfg (sys_cfgid, sysname, defavalue) KEY (sys_cfgid) VALUES
+    (1, 'gcvinechargesfileheader', 'CHARGES'),
+    (2, 'gcvineprisonerfileheader', 'PRISONER'),
+    (3, 'gcvinejailidnumber', 'TESTJAIL'),
+    (4, 'gcvineftpusername', 'vine'),
+    (5, 'gcvineftppassword', 'test'),
+    (6, 'gcvineprimaryftpservername', 'localhost'),
+    (7, 'gcvinenewmugshotdirectory', 'target/vine/newmugshots'),
+    (8, 'gcvinemugshotdirectory', 'target/vine/mugshots'),
+    (9, 'gcvineftpdatfoldername', '/dat/'),
+    (10, 'gnvineftpfirewalloutport', '22'),
+    (11, 'gcvineftpmugshotfoldername', '/mugshots/'),
+    (12, 'glvineusesftp', 'true'),
+    (13, 'gcvinenewvinefilepath', 'target/vine'),
+    (14, 'gcvineinterfile', 'Vine.dat');
+
+MERGE INTO systab1 (systab1id, code_agcy, code_key, sys_msg) KEY (systab1id) VALUES
+    (1, 'SO', 'AGCY', 'SHERIFF');